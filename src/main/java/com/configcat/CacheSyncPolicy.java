@@ -0,0 +1,94 @@
+package com.configcat;
+
+/**
+ * Describes how often the SDK synchronizes its in-memory config with the {@link ConfigCache}.
+ * <p>
+ * By default the cache is read on every evaluation, so config updates written to a shared cache by other clients are
+ * picked up immediately. Less frequent synchronization keeps the cache (and its I/O) off the evaluation path.
+ */
+public final class CacheSyncPolicy {
+    private static final CacheSyncPolicy ALWAYS = new CacheSyncPolicy(Mode.ALWAYS, 0);
+    private static final CacheSyncPolicy WHEN_EXPIRED = new CacheSyncPolicy(Mode.WHEN_EXPIRED, 0);
+    private static final CacheSyncPolicy NEVER = new CacheSyncPolicy(Mode.NEVER, 0);
+
+    private enum Mode {
+        ALWAYS,
+        INTERVAL,
+        WHEN_EXPIRED,
+        NEVER
+    }
+
+    private final Mode mode;
+    private final long intervalMillis;
+
+    private CacheSyncPolicy(Mode mode, long intervalMillis) {
+        this.mode = mode;
+        this.intervalMillis = intervalMillis;
+    }
+
+    /**
+     * Reads the cache whenever the config is accessed. This is the default.
+     *
+     * @return the cache synchronization policy.
+     */
+    public static CacheSyncPolicy always() {
+        return ALWAYS;
+    }
+
+    /**
+     * Reads the cache at most once in the given period, the in-memory config is used in between.
+     *
+     * @param intervalMillis the minimum time between two cache reads in milliseconds.
+     * @return the cache synchronization policy.
+     */
+    public static CacheSyncPolicy atMostEvery(long intervalMillis) {
+        if (intervalMillis <= 0) {
+            throw new IllegalArgumentException("'intervalMillis' must be greater than 0.");
+        }
+        return new CacheSyncPolicy(Mode.INTERVAL, intervalMillis);
+    }
+
+    /**
+     * Reads the cache only when the in-memory config is expired according to the polling mode, right before a fetch
+     * would be initiated.
+     *
+     * @return the cache synchronization policy.
+     */
+    public static CacheSyncPolicy whenExpired() {
+        return WHEN_EXPIRED;
+    }
+
+    /**
+     * Reads the cache only once, to load the config persisted by a previous run. Suitable when the SDK is the only
+     * writer of the cache.
+     *
+     * @return the cache synchronization policy.
+     */
+    public static CacheSyncPolicy never() {
+        return NEVER;
+    }
+
+    /**
+     * Decides whether the cache has to be read.
+     *
+     * @param synced   whether the cache was read before.
+     * @param lastSync the time of the last cache read in milliseconds.
+     * @param now      the current time in milliseconds.
+     * @param expired  whether the in-memory config is expired.
+     */
+    boolean shouldSync(boolean synced, long lastSync, long now, boolean expired) {
+        if (!synced) {
+            return true;
+        }
+        switch (mode) {
+            case INTERVAL:
+                return now - lastSync >= intervalMillis;
+            case WHEN_EXPIRED:
+                return expired;
+            case NEVER:
+                return false;
+            default:
+                return true;
+        }
+    }
+}
@@ -0,0 +1,626 @@
+package com.configcat;
+
+import de.skuzzle.semantic.Version;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Pre-resolved form of a {@link UserCondition}.
+ * <p>
+ * The comparator is decoded and the comparison value is validated once, when the config is loaded, so the evaluator
+ * doesn't have to repeat this work on every call. Invalid comparison values are not rejected here; they are reported
+ * when the condition gets evaluated, exactly as before.
+ */
+final class CompiledUserCondition {
+
+    // Below this many comparison values a plain loop over String.contains/startsWith/endsWith is cheaper than a matcher.
+    private static final int TEXT_MATCHER_THRESHOLD = 8;
+
+    enum Kind {
+        CONTAINS_ANY_OF,
+        SEMVER_IS_ONE_OF,
+        SEMVER_COMPARE,
+        NUMBER_COMPARE,
+        IS_ONE_OF,
+        DATE_COMPARE,
+        EQUALS,
+        HASHED_STARTS_OR_ENDS_WITH,
+        TEXT_STARTS_WITH,
+        TEXT_ENDS_WITH,
+        ARRAY_CONTAINS
+    }
+
+    private final UserCondition userCondition;
+    // The UserAttributeSlots slot of the comparison attribute or NO_SLOT if it has none.
+    private final int comparisonAttributeSlot;
+    private final UserComparator comparator;
+    private final Kind kind;
+    private final boolean negate;
+    private final boolean hashed;
+    private final String configSalt;
+    private final String contextSalt;
+    private final String stringValue;
+    private final Double doubleValue;
+    private final String[] stringArrayValue;
+    // Index of the first null item of stringArrayValue (or its length if there is none). Items before this index are valid.
+    private final int validItemCount;
+    // Valid comparison list items indexed for the cleartext IS ONE OF and ARRAY CONTAINS comparators.
+    private final Set<String> stringArrayValueSet;
+    // Valid comparison list items decoded to raw SHA256 digests for the hashed IS ONE OF and ARRAY CONTAINS comparators.
+    private final Set<ByteBuffer> digestSet;
+    // Comparison value of the hashed EQUALS comparators decoded to a raw SHA256 digest.
+    private final byte[] stringValueDigest;
+    // Matcher over the valid comparison list items for the CONTAINS, STARTS WITH and ENDS WITH comparators of long lists.
+    private final TextMatcher textMatcher;
+    // Parsed comparison value of the semver comparators, null if it's invalid.
+    private final Version versionValue;
+    // Parsed and sorted comparison values of the SEMVER IS ONE OF comparators, null if the list has a missing or an invalid item.
+    private final Version[] sortedVersionValues;
+    // Tells whether a missing or an invalid item comes first in a SEMVER IS ONE OF list that has any.
+    private final boolean missingVersionValueFirst;
+    // Pre-decoded comparison values of the hashed STARTS WITH and ENDS WITH comparators, null if the list is malformed.
+    private final HashedSliceMatcher hashedSliceMatcher;
+    // The salts appended to the hashed user values, in text and UTF-8 encoded forms.
+    private final String saltSuffix;
+    private final byte[] saltSuffixUTF8;
+    // The separately encoded salts appended to the hashed user value slices.
+    private final byte[] sliceSaltUTF8;
+    // The key of the value the comparator derives from text user attributes, null if it uses none.
+    private final UserDerivedValues.Key derivedValueKey;
+
+    private CompiledUserCondition(UserCondition userCondition, String configSalt, String contextSalt) {
+        this.userCondition = userCondition;
+        this.comparisonAttributeSlot = userCondition.getComparisonAttribute() != null
+                ? UserAttributeSlots.slotOf(userCondition.getComparisonAttribute())
+                : UserAttributeSlots.NO_SLOT;
+        this.configSalt = configSalt;
+        this.contextSalt = contextSalt;
+        this.comparator = UserComparator.fromId(userCondition.getComparator());
+        this.kind = kindOf(comparator);
+        this.negate = isNegated(comparator);
+        this.hashed = isHashed(comparator);
+        this.stringValue = userCondition.getStringValue();
+        this.doubleValue = userCondition.getDoubleValue();
+        this.stringArrayValue = userCondition.getStringArrayValue();
+        this.validItemCount = stringArrayValue != null ? indexOfFirstNull(stringArrayValue) : 0;
+        boolean listLookup = stringArrayValue != null && (kind == Kind.IS_ONE_OF || kind == Kind.ARRAY_CONTAINS);
+        this.stringArrayValueSet = listLookup && !hashed ? new HashSet<>(Arrays.asList(stringArrayValue).subList(0, validItemCount)) : null;
+        this.digestSet = listLookup && hashed ? digestSetOf(stringArrayValue, validItemCount) : null;
+        this.stringValueDigest = kind == Kind.EQUALS && hashed ? HashUtils.decodeSha256Hex(stringValue) : null;
+        this.textMatcher = stringArrayValue != null && validItemCount >= TEXT_MATCHER_THRESHOLD ? textMatcherOf(kind, stringArrayValue, validItemCount) : null;
+        this.versionValue = kind == Kind.SEMVER_COMPARE && stringValue != null ? parseVersionOrNull(stringValue) : null;
+
+        Version[] versions = null;
+        boolean missingFirst = false;
+        if (kind == Kind.SEMVER_IS_ONE_OF && stringArrayValue != null) {
+            List<Version> parsedVersions = new ArrayList<>();
+            for (String semVer : stringArrayValue) {
+                if (semVer == null) {
+                    missingFirst = true;
+                    parsedVersions = null;
+                    break;
+                }
+                // Previous versions of the evaluation algorithm ignore empty comparison values.
+                // We keep this behavior for backward compatibility.
+                if (semVer.isEmpty()) {
+                    continue;
+                }
+                Version version = parseVersionOrNull(semVer);
+                if (version == null) {
+                    parsedVersions = null;
+                    break;
+                }
+                parsedVersions.add(version);
+            }
+            if (parsedVersions != null) {
+                versions = parsedVersions.toArray(new Version[0]);
+                Arrays.sort(versions);
+            }
+        }
+        this.sortedVersionValues = versions;
+        this.missingVersionValueFirst = missingFirst;
+
+        this.hashedSliceMatcher = kind == Kind.HASHED_STARTS_OR_ENDS_WITH && stringArrayValue != null
+                ? HashedSliceMatcher.compile(stringArrayValue, comparator == UserComparator.HASHED_ENDS_WITH || comparator == UserComparator.HASHED_NOT_ENDS_WITH)
+                : null;
+        this.saltSuffix = configSalt != null ? configSalt + contextSalt : null;
+        this.saltSuffixUTF8 = saltSuffix != null ? saltSuffix.getBytes(StandardCharsets.UTF_8) : null;
+        if (configSalt != null && contextSalt != null) {
+            byte[] configSaltUTF8 = configSalt.getBytes(StandardCharsets.UTF_8);
+            byte[] contextSaltUTF8 = contextSalt.getBytes(StandardCharsets.UTF_8);
+            this.sliceSaltUTF8 = Arrays.copyOf(configSaltUTF8, configSaltUTF8.length + contextSaltUTF8.length);
+            System.arraycopy(contextSaltUTF8, 0, sliceSaltUTF8, configSaltUTF8.length, contextSaltUTF8.length);
+        } else {
+            this.sliceSaltUTF8 = null;
+        }
+        this.derivedValueKey = derivedValueKeyOf(kind, hashed, userCondition.getComparisonAttribute(), saltSuffix);
+    }
+
+    private static UserDerivedValues.Key derivedValueKeyOf(Kind kind, boolean hashed, String comparisonAttribute, String saltSuffix) {
+        if (kind == null || comparisonAttribute == null) {
+            return null;
+        }
+        switch (kind) {
+            case SEMVER_IS_ONE_OF:
+            case SEMVER_COMPARE:
+                return UserDerivedValues.versionKey(comparisonAttribute);
+            case NUMBER_COMPARE:
+            case DATE_COMPARE:
+                return UserDerivedValues.numberKey(comparisonAttribute);
+            case ARRAY_CONTAINS:
+                return UserDerivedValues.stringArrayKey(comparisonAttribute);
+            case IS_ONE_OF:
+            case EQUALS:
+                return hashed ? UserDerivedValues.saltedHashKey(comparisonAttribute, saltSuffix) : null;
+            default:
+                return null;
+        }
+    }
+
+    static CompiledUserCondition compile(UserCondition userCondition, String configSalt, String contextSalt) {
+        return new CompiledUserCondition(userCondition, configSalt, contextSalt);
+    }
+
+    boolean isCompiledFor(String configSalt, String contextSalt) {
+        return Objects.equals(this.configSalt, configSalt) && Objects.equals(this.contextSalt, contextSalt);
+    }
+
+    UserCondition getUserCondition() {
+        return userCondition;
+    }
+
+    /**
+     * The key of the value the comparator derives from text user attributes or {@code null} if it uses none.
+     */
+    UserDerivedValues.Key getDerivedValueKey() {
+        return derivedValueKey;
+    }
+
+    String getComparisonAttribute() {
+        return userCondition.getComparisonAttribute();
+    }
+
+    /**
+     * Returns the value of the comparison attribute, looked up by its interned slot when it has one.
+     */
+    Object getComparisonAttributeValue(User user) {
+        return comparisonAttributeSlot != UserAttributeSlots.NO_SLOT
+                ? user.getAttribute(comparisonAttributeSlot, getComparisonAttribute())
+                : user.getAttribute(getComparisonAttribute());
+    }
+
+    /**
+     * The decoded comparator or {@code null} if the comparator of the condition is invalid.
+     */
+    UserComparator getComparator() {
+        return comparator;
+    }
+
+    Kind getKind() {
+        return kind;
+    }
+
+    boolean evaluateText(String userValue) {
+        return evaluateText(userValue, null);
+    }
+
+    /**
+     * Evaluates a text comparator. The salted hash of the user value is taken from {@code derivedValues} when it's
+     * given, which must belong to the User Object the comparison attribute value was read from.
+     */
+    boolean evaluateText(String userValue, UserDerivedValues derivedValues) {
+        if (kind == null) {
+            throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_OPERATOR_IS_INVALID);
+        }
+        switch (kind) {
+            case CONTAINS_ANY_OF:
+                return evaluateContainsAnyOf(userValue);
+            case IS_ONE_OF:
+                return evaluateIsOneOf(userValue, derivedValues);
+            case EQUALS:
+                return evaluateEquals(userValue, derivedValues);
+            case HASHED_STARTS_OR_ENDS_WITH:
+                return evaluateHashedStartOrEndsWith(ensureConfigSalt(configSalt), userValue);
+            case TEXT_STARTS_WITH:
+                return evaluateTextStartsWith(userValue);
+            case TEXT_ENDS_WITH:
+                return evaluateTextEndsWith(userValue);
+            default:
+                throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_OPERATOR_IS_INVALID);
+        }
+    }
+
+    boolean evaluateSemver(Version userValue) {
+        if (kind == Kind.SEMVER_IS_ONE_OF) {
+            return evaluateSemverIsOneOf(userValue);
+        }
+        ensureComparisonValue(stringValue);
+        Version matchValue = versionValue;
+        if (matchValue == null) {
+            return false;
+        }
+        return (UserComparator.SEMVER_LESS.equals(comparator) && userValue.isLowerThan(matchValue)) ||
+                (UserComparator.SEMVER_LESS_EQUALS.equals(comparator) && userValue.compareTo(matchValue) <= 0) ||
+                (UserComparator.SEMVER_GREATER.equals(comparator) && userValue.isGreaterThan(matchValue)) ||
+                (UserComparator.SEMVER_GREATER_EQUALS.equals(comparator) && userValue.compareTo(matchValue) >= 0);
+    }
+
+    boolean evaluateNumber(double userValue) {
+        double comparisonValue = ensureComparisonValue(doubleValue);
+        switch (comparator) {
+            case NUMBER_EQUALS:
+                return Double.compare(userValue, comparisonValue) == 0;
+            case NUMBER_NOT_EQUALS:
+                return Double.compare(userValue, comparisonValue) != 0;
+            case NUMBER_LESS:
+                return userValue < comparisonValue;
+            case NUMBER_LESS_EQUALS:
+                return userValue <= comparisonValue;
+            case NUMBER_GREATER:
+                return userValue > comparisonValue;
+            case NUMBER_GREATER_EQUALS:
+                return userValue >= comparisonValue;
+            default:
+                return false;
+        }
+    }
+
+    boolean evaluateDate(double userValue) {
+        double comparisonValue = ensureComparisonValue(doubleValue);
+        return (UserComparator.DATE_BEFORE.equals(comparator) && userValue < comparisonValue) ||
+                (UserComparator.DATE_AFTER.equals(comparator) && userValue > comparisonValue);
+    }
+
+    boolean evaluateArrayContains(String[] userValues) {
+        String[] comparisonValues = ensureComparisonValue(stringArrayValue);
+
+        if (userValues.length == 0) {
+            return false;
+        }
+        for (String userValue : userValues) {
+            boolean listed = hashed
+                    ? isListed(comparisonValues, getSaltedUserValue(userValue, null))
+                    : isListed(comparisonValues, userValue);
+            if (listed) {
+                return !negate;
+            }
+        }
+        return negate;
+    }
+
+    private boolean evaluateContainsAnyOf(String userValue) {
+        String[] comparisonValues = ensureComparisonValue(stringArrayValue);
+
+        if (textMatcher != null) {
+            return textMatcher.matches(userValue) ? !negate : negateOrInvalid(comparisonValues);
+        }
+
+        for (int i = 0; i < validItemCount; i++) {
+            if (userValue.contains(comparisonValues[i])) {
+                return !negate;
+            }
+        }
+        return negateOrInvalid(comparisonValues);
+    }
+
+    private boolean evaluateIsOneOf(String userValue, UserDerivedValues derivedValues) {
+        String[] comparisonValues = ensureComparisonValue(stringArrayValue);
+
+        boolean listed = hashed
+                ? isListed(comparisonValues, getSaltedUserValue(userValue, derivedValues))
+                : isListed(comparisonValues, userValue);
+        return negate != listed;
+    }
+
+    private boolean evaluateEquals(String userValue, UserDerivedValues derivedValues) {
+        String comparisonValue = ensureComparisonValue(stringValue);
+
+        if (hashed) {
+            byte[] userValueDigest = getSaltedUserValue(userValue, derivedValues);
+            return negate != Arrays.equals(userValueDigest, stringValueDigest);
+        }
+        return negate != userValue.equals(comparisonValue);
+    }
+
+    private boolean evaluateTextStartsWith(String userValue) {
+        String[] comparisonValues = ensureComparisonValue(stringArrayValue);
+
+        if (textMatcher != null) {
+            return textMatcher.matches(userValue) ? !negate : negateOrInvalid(comparisonValues);
+        }
+
+        for (int i = 0; i < validItemCount; i++) {
+            if (userValue.startsWith(comparisonValues[i])) {
+                return !negate;
+            }
+        }
+        return negateOrInvalid(comparisonValues);
+    }
+
+    private boolean evaluateTextEndsWith(String userValue) {
+        String[] comparisonValues = ensureComparisonValue(stringArrayValue);
+
+        if (textMatcher != null) {
+            return textMatcher.matches(userValue) ? !negate : negateOrInvalid(comparisonValues);
+        }
+
+        for (int i = 0; i < validItemCount; i++) {
+            if (userValue.endsWith(comparisonValues[i])) {
+                return !negate;
+            }
+        }
+        return negateOrInvalid(comparisonValues);
+    }
+
+    private boolean evaluateSemverIsOneOf(Version userVersion) {
+        ensureComparisonValue(stringArrayValue);
+
+        if (sortedVersionValues == null) {
+            if (missingVersionValueFirst) {
+                throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+            }
+            // Previous versions of the evaluation algorithm ignored invalid comparison values.
+            // We keep this behavior for backward compatibility.
+            return false;
+        }
+        boolean matched = Arrays.binarySearch(sortedVersionValues, userVersion) >= 0;
+        return negate != matched;
+    }
+
+    private boolean evaluateHashedStartOrEndsWith(String configSalt, String userAttributeValue) {
+        String[] comparisonValues = ensureComparisonValue(stringArrayValue);
+
+        byte[] userAttributeValueUTF8 = userAttributeValue.getBytes(StandardCharsets.UTF_8);
+        if (hashedSliceMatcher != null) {
+            return negate != hashedSliceMatcher.matches(userAttributeValueUTF8, sliceSaltUTF8);
+        }
+        boolean foundEqual = false;
+        for (String comparisonValueHashedStartsEnds : comparisonValues) {
+            int indexOf = ensureComparisonValue(comparisonValueHashedStartsEnds).indexOf("_");
+            if (indexOf <= 0) {
+                throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+            }
+            String comparedTextLength = comparisonValueHashedStartsEnds.substring(0, indexOf).trim();
+            int comparedTextLengthInt;
+            try {
+                comparedTextLengthInt = Integer.parseInt(comparedTextLength);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+            }
+
+            if (userAttributeValueUTF8.length < comparedTextLengthInt) {
+                continue;
+            }
+            String comparisonHashValue = comparisonValueHashedStartsEnds.substring(indexOf + 1);
+            if (comparisonHashValue.isEmpty()) {
+                throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+            }
+            byte[] userValueSubStringByteArray;
+            if (UserComparator.HASHED_STARTS_WITH.equals(comparator) || UserComparator.HASHED_NOT_STARTS_WITH.equals(comparator)) {
+                userValueSubStringByteArray = Arrays.copyOfRange(userAttributeValueUTF8, 0, comparedTextLengthInt);
+            } else { //HASHED_ENDS_WITH
+                userValueSubStringByteArray = Arrays.copyOfRange(userAttributeValueUTF8, userAttributeValueUTF8.length - comparedTextLengthInt, userAttributeValueUTF8.length);
+            }
+            String hashUserValueSub = getSaltedUserValueSlice(userValueSubStringByteArray, configSalt);
+
+            if (hashUserValueSub.equals(comparisonHashValue)) {
+                foundEqual = true;
+                break;
+            }
+        }
+        return negate != foundEqual;
+    }
+
+    /**
+     * Checks whether the given value is in the comparison list.
+     * Throws when the list has a missing item and the value is not listed before it, as the original linear scan did.
+     */
+    private boolean isListed(String[] comparisonValues, String value) {
+        if (stringArrayValueSet.contains(value)) {
+            return true;
+        }
+        if (validItemCount < comparisonValues.length) {
+            throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+        }
+        return false;
+    }
+
+    private boolean isListed(String[] comparisonValues, byte[] digest) {
+        if (digestSet.contains(ByteBuffer.wrap(digest))) {
+            return true;
+        }
+        if (validItemCount < comparisonValues.length) {
+            throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+        }
+        return false;
+    }
+
+    private boolean negateOrInvalid(String[] comparisonValues) {
+        if (validItemCount < comparisonValues.length) {
+            throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+        }
+        return negate;
+    }
+
+    private byte[] getSaltedUserValue(String userValue, UserDerivedValues derivedValues) {
+        ensureConfigSalt(configSalt);
+        return derivedValues != null && derivedValueKey != null
+                ? derivedValues.getSaltedHash(derivedValueKey, userValue, saltSuffixUTF8)
+                : HashUtils.sha256(userValue, saltSuffix, saltSuffixUTF8);
+    }
+
+    private String getSaltedUserValueSlice(byte[] userValueSliceUTF8, String configJsonSalt) {
+        byte[] configSaltByteArray = configJsonSalt.getBytes(StandardCharsets.UTF_8);
+        byte[] contextSaltByteArray = contextSalt.getBytes(StandardCharsets.UTF_8);
+        byte[] concatByteArrays = new byte[userValueSliceUTF8.length + configSaltByteArray.length + contextSaltByteArray.length];
+
+        System.arraycopy(userValueSliceUTF8, 0, concatByteArrays, 0, userValueSliceUTF8.length);
+        System.arraycopy(configSaltByteArray, 0, concatByteArrays, userValueSliceUTF8.length, configSaltByteArray.length);
+        System.arraycopy(contextSaltByteArray, 0, concatByteArrays, userValueSliceUTF8.length + configSaltByteArray.length, contextSaltByteArray.length);
+        return Utils.sha256(concatByteArrays);
+    }
+
+    private static int indexOfFirstNull(String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == null) {
+                return i;
+            }
+        }
+        return values.length;
+    }
+
+    private static Set<ByteBuffer> digestSetOf(String[] values, int count) {
+        Set<ByteBuffer> result = new HashSet<>();
+        for (int i = 0; i < count; i++) {
+            byte[] digest = HashUtils.decodeSha256Hex(values[i]);
+            // Values that aren't lowercase hex SHA256 hashes can never match.
+            if (digest != null) {
+                result.add(ByteBuffer.wrap(digest));
+            }
+        }
+        return result;
+    }
+
+    private static Version parseVersionOrNull(String value) {
+        try {
+            return Version.parseVersion(value.trim(), true);
+        } catch (Version.VersionFormatException exception) {
+            return null;
+        }
+    }
+
+    private static TextMatcher textMatcherOf(Kind kind, String[] values, int count) {
+        if (kind == Kind.CONTAINS_ANY_OF) {
+            return TextMatcher.contains(values, count);
+        }
+        if (kind == Kind.TEXT_STARTS_WITH) {
+            return TextMatcher.startsWith(values, count);
+        }
+        if (kind == Kind.TEXT_ENDS_WITH) {
+            return TextMatcher.endsWith(values, count);
+        }
+        return null;
+    }
+
+    private static <T> T ensureComparisonValue(T value) {
+        if (value == null) {
+            throw new IllegalArgumentException(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID);
+        }
+        return value;
+    }
+
+    private static String ensureConfigSalt(String configSalt) {
+        if (configSalt == null) {
+            throw new IllegalArgumentException("Config JSON salt is missing.");
+        }
+        return configSalt;
+    }
+
+    private static Kind kindOf(UserComparator comparator) {
+        if (comparator == null) {
+            return null;
+        }
+        switch (comparator) {
+            case CONTAINS_ANY_OF:
+            case NOT_CONTAINS_ANY_OF:
+                return Kind.CONTAINS_ANY_OF;
+            case SEMVER_IS_ONE_OF:
+            case SEMVER_IS_NOT_ONE_OF:
+                return Kind.SEMVER_IS_ONE_OF;
+            case SEMVER_LESS:
+            case SEMVER_LESS_EQUALS:
+            case SEMVER_GREATER:
+            case SEMVER_GREATER_EQUALS:
+                return Kind.SEMVER_COMPARE;
+            case NUMBER_EQUALS:
+            case NUMBER_NOT_EQUALS:
+            case NUMBER_LESS:
+            case NUMBER_LESS_EQUALS:
+            case NUMBER_GREATER:
+            case NUMBER_GREATER_EQUALS:
+                return Kind.NUMBER_COMPARE;
+            case IS_ONE_OF:
+            case IS_NOT_ONE_OF:
+            case SENSITIVE_IS_ONE_OF:
+            case SENSITIVE_IS_NOT_ONE_OF:
+                return Kind.IS_ONE_OF;
+            case DATE_BEFORE:
+            case DATE_AFTER:
+                return Kind.DATE_COMPARE;
+            case TEXT_EQUALS:
+            case TEXT_NOT_EQUALS:
+            case HASHED_EQUALS:
+            case HASHED_NOT_EQUALS:
+                return Kind.EQUALS;
+            case HASHED_STARTS_WITH:
+            case HASHED_ENDS_WITH:
+            case HASHED_NOT_STARTS_WITH:
+            case HASHED_NOT_ENDS_WITH:
+                return Kind.HASHED_STARTS_OR_ENDS_WITH;
+            case TEXT_STARTS_WITH:
+            case TEXT_NOT_STARTS_WITH:
+                return Kind.TEXT_STARTS_WITH;
+            case TEXT_ENDS_WITH:
+            case TEXT_NOT_ENDS_WITH:
+                return Kind.TEXT_ENDS_WITH;
+            case TEXT_ARRAY_CONTAINS:
+            case TEXT_ARRAY_NOT_CONTAINS:
+            case HASHED_ARRAY_CONTAINS:
+            case HASHED_ARRAY_NOT_CONTAINS:
+                return Kind.ARRAY_CONTAINS;
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isNegated(UserComparator comparator) {
+        if (comparator == null) {
+            return false;
+        }
+        switch (comparator) {
+            case IS_NOT_ONE_OF:
+            case NOT_CONTAINS_ANY_OF:
+            case SEMVER_IS_NOT_ONE_OF:
+            case SENSITIVE_IS_NOT_ONE_OF:
+            case HASHED_NOT_EQUALS:
+            case HASHED_NOT_STARTS_WITH:
+            case HASHED_NOT_ENDS_WITH:
+            case HASHED_ARRAY_NOT_CONTAINS:
+            case TEXT_NOT_EQUALS:
+            case TEXT_NOT_STARTS_WITH:
+            case TEXT_NOT_ENDS_WITH:
+            case TEXT_ARRAY_NOT_CONTAINS:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isHashed(UserComparator comparator) {
+        if (comparator == null) {
+            return false;
+        }
+        switch (comparator) {
+            case SENSITIVE_IS_ONE_OF:
+            case SENSITIVE_IS_NOT_ONE_OF:
+            case HASHED_EQUALS:
+            case HASHED_NOT_EQUALS:
+            case HASHED_STARTS_WITH:
+            case HASHED_NOT_STARTS_WITH:
+            case HASHED_ENDS_WITH:
+            case HASHED_NOT_ENDS_WITH:
+            case HASHED_ARRAY_CONTAINS:
+            case HASHED_ARRAY_NOT_CONTAINS:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.configcat;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * A cache API used to make custom cache implementations for {@link ConfigCatClient}.
  */
@@ -23,5 +25,119 @@ public abstract class ConfigCache {
      * @throws Exception if unable to save the value.
      */
     protected abstract void write(String key, String value) throws Exception;
-}
 
+    /**
+     * Child classes can override this method to avoid transferring the whole cached value when it's not needed.
+     * The {@link ConfigCatClient} only picks up a cached value with a different ETag than the one of the config it
+     * already has, so the implementation can return {@code null} when the cached value has the {@code knownETag}
+     * (see {@link #getETag(String)}).
+     * <p>
+     * The default implementation reads the whole value with {@link #read(String)}.
+     *
+     * @param key       the key of the cache entry.
+     * @param knownETag the ETag of the config the {@link ConfigCatClient} already has, or {@code null} if it has none.
+     * @return the cached configuration, or {@code null} if there is none or it has the known ETag.
+     * @throws Exception if unable to read the cache.
+     */
+    protected String readIfChanged(String key, String knownETag) throws Exception {
+        return read(key);
+    }
+
+    /**
+     * Child classes can override this method to update only the fetch time of the cached value, leaving its ETag and
+     * config JSON as they are. The {@link ConfigCatClient} calls it when the config was found unchanged on the server,
+     * which is the outcome of most fetches, so shared caches don't have to receive the whole config again.
+     * <p>
+     * The default implementation returns {@code false}, in which case the whole value is written with
+     * {@link #write(String, String)}.
+     *
+     * @param key       the key of the cache entry.
+     * @param fetchTime the new fetch time in Unix milliseconds.
+     * @return {@code true} if the fetch time was updated, {@code false} if the whole value has to be written.
+     * @throws Exception if unable to update the value.
+     */
+    protected boolean touch(String key, long fetchTime) throws Exception {
+        return false;
+    }
+
+    /**
+     * Child classes can override this method to read the cache without blocking the calling thread, which is the one
+     * evaluating a feature flag. Until the returned future completes, the {@link ConfigCatClient} keeps serving the
+     * config it already has and applies the cached value once it arrives.
+     * <p>
+     * The default implementation calls {@link #readIfChanged(String, String)} on the calling thread.
+     *
+     * @param key       the key of the cache entry.
+     * @param knownETag the ETag of the config the {@link ConfigCatClient} already has, or {@code null} if it has none.
+     * @return a future of the cached configuration (see {@link #readIfChanged(String, String)}), completed
+     * exceptionally if unable to read the cache.
+     */
+    protected CompletableFuture<String> readAsync(String key, String knownETag) {
+        try {
+            return CompletableFuture.completedFuture(readIfChanged(key, knownETag));
+        } catch (Exception e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * Child classes can override this method to write the cache without blocking the calling thread. The
+     * {@link ConfigCatClient} doesn't wait for the returned future, it only logs its failure.
+     * <p>
+     * The default implementation calls {@link #write(String, String)} on the calling thread.
+     *
+     * @param key   the key of the cache entry.
+     * @param value the new value to cache.
+     * @return a future completed when the value is saved, completed exceptionally if unable to save it.
+     */
+    protected CompletableFuture<Void> writeAsync(String key, String value) {
+        try {
+            write(key, value);
+            return CompletableFuture.completedFuture(null);
+        } catch (Exception e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * Child classes can override this method to update the fetch time of the cached value without blocking the
+     * calling thread. When the returned future completes with {@code false}, the whole value is written with
+     * {@link #writeAsync(String, String)}.
+     * <p>
+     * The default implementation calls {@link #touch(String, long)} on the calling thread.
+     *
+     * @param key       the key of the cache entry.
+     * @param fetchTime the new fetch time in Unix milliseconds.
+     * @return a future of the result of {@link #touch(String, long)}, completed exceptionally if unable to update
+     * the value.
+     */
+    protected CompletableFuture<Boolean> touchAsync(String key, long fetchTime) {
+        try {
+            return CompletableFuture.completedFuture(touch(key, fetchTime));
+        } catch (Exception e) {
+            return failedFuture(e);
+        }
+    }
+
+    /**
+     * Extracts the ETag from a value passed to {@link #write(String, String)}, so implementations can store it
+     * separately and answer {@link #readIfChanged(String, String)} without reading the whole value.
+     *
+     * @param value the cached value.
+     * @return the ETag, or {@code null} if the value is not in the expected format.
+     */
+    protected static String getETag(String value) {
+        if (value == null) {
+            return null;
+        }
+        int fetchTimeIndex = value.indexOf("\n");
+        int eTagIndex = fetchTimeIndex < 0 ? -1 : value.indexOf("\n", fetchTimeIndex + 1);
+        return eTagIndex < 0 ? null : value.substring(fetchTimeIndex + 1, eTagIndex);
+    }
+
+    private static <T> CompletableFuture<T> failedFuture(Exception exception) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        future.completeExceptionally(exception);
+        return future;
+    }
+}
@@ -7,9 +7,14 @@ import java.io.IOException;
 import java.net.Proxy;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * A client for handling configurations provided by ConfigCat.
@@ -17,6 +22,8 @@ import java.util.function.Consumer;
 public final class ConfigCatClient implements ConfigurationProvider {
     private static final String BASE_URL_GLOBAL = "https://cdn-global.configcat.com";
     private static final String BASE_URL_EU = "https://cdn-eu.configcat.com";
+    private static final int MIN_EVALUATION_PARTITION_SIZE = 64;
+    private static final int USER_CHUNK_SIZE = 64;
     private static final Map<String, ConfigCatClient> INSTANCES = new HashMap<>();
     private final AtomicBoolean isClosed = new AtomicBoolean(false);
     private final ConfigCatLogger logger;
@@ -28,6 +35,9 @@ public final class ConfigCatClient implements ConfigurationProvider {
     private ConfigService configService;
     private final ConfigCatHooks configCatHooks;
     private final LogLevel clientLogLevel;
+    private final EvaluationCache evaluationCache;
+    private final Executor evaluationExecutor;
+    private volatile MergedSettings mergedSettings;
 
     private ConfigCatClient(String sdkKey, Options options) {
         this.logger = new ConfigCatLogger(LoggerFactory.getLogger(ConfigCatClient.class), options.logLevel, options.configCatHooks, options.logFilter);
@@ -54,12 +64,20 @@ public final class ConfigCatClient implements ConfigurationProvider {
                     options.isBaseURLCustom(),
                     options.pollingMode.getPollingIdentifier());
 
-            this.configService = new ConfigService(sdkKey, fetcher, options.pollingMode, options.cache, logger, options.offline, options.configCatHooks);
+            this.configService = new ConfigService(sdkKey, fetcher, options.pollingMode, options.cache, logger, options.offline, options.configCatHooks, options.cacheSyncPolicy);
         } else {
             configCatHooks.invokeOnClientReady(ClientCacheState.HAS_LOCAL_OVERRIDE_FLAG_DATA_ONLY);
         }
 
         this.defaultUser = options.defaultUser;
+        this.evaluationExecutor = options.evaluationExecutor;
+
+        // Cached results would skip the evaluation logs and flag overrides can be changed without a new config.
+        if (options.evaluationCacheSize > 0 && options.localDataSourceBuilder == null && this.clientLogLevel.ordinal() > LogLevel.INFO.ordinal()) {
+            this.evaluationCache = new EvaluationCache(options.evaluationCacheSize);
+        } else {
+            this.evaluationCache = null;
+        }
     }
 
     private static OkHttpClient createHttpClient(Options.HttpOptions httpOptions) {
@@ -90,6 +108,10 @@ public final class ConfigCatClient implements ConfigurationProvider {
 
         validateReturnType(classOfT);
         try {
+            SettingResult settingResult = this.getSettingsIfAvailable();
+            if (settingResult != null) {
+                return this.getValueFromSettingsMap(classOfT, settingResult, key, user, defaultValue);
+            }
             return this.getValueAsync(classOfT, key, user, defaultValue).get();
         } catch (InterruptedException e) {
             this.logger.error(0, "Thread interrupted.", e);
@@ -195,32 +217,197 @@ public final class ConfigCatClient implements ConfigurationProvider {
     @Override
     public CompletableFuture<Map<String, Object>> getAllValuesAsync(User user) {
         return this.getSettingsAsync()
-                .thenApply(settingResult -> {
+                .thenCompose(settingResult -> {
                     try {
                         if (!checkSettingsAvailable(settingResult, "empty map")) {
-                            return new HashMap<>();
+                            return CompletableFuture.completedFuture(new HashMap<>());
                         }
 
                         Map<String, Setting> settings = settingResult.settings();
-                        Collection<String> keys = settings.keySet();
-                        Map<String, Object> result = new HashMap<>();
+                        User evaluateUser = getEvaluateUser(user);
+                        return this.evaluatePartitioned(settings.keySet(), keys -> this.evaluateValues(keys, evaluateUser, settings))
+                                .thenApply(partitions -> {
+                                    Map<String, Object> result = new HashMap<>();
+                                    for (Map<String, Object> partition : partitions) {
+                                        result.putAll(partition);
+                                    }
+                                    return result;
+                                })
+                                .exceptionally(e -> {
+                                    this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getAllValuesAsync", "empty map"), unwrap(e));
+                                    return new HashMap<>();
+                                });
+                    } catch (Exception e) {
+                        this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getAllValuesAsync", "empty map"), e);
+                        return CompletableFuture.completedFuture(new HashMap<>());
+                    }
+                });
+    }
+
+    @Override
+    public Map<String, Object> getValues(Collection<String> keys) {
+        return this.getValues(keys, null);
+    }
+
+    @Override
+    public Map<String, Object> getValues(Collection<String> keys, User user) {
+        if (keys == null)
+            throw new IllegalArgumentException("'keys' cannot be null.");
+
+        try {
+            return this.getValuesAsync(keys, user).get();
+        } catch (InterruptedException e) {
+            this.logger.error(0, "Thread interrupted.", e);
+            Thread.currentThread().interrupt();
+            return new HashMap<>();
+        } catch (Exception e) {
+            this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getValues", "empty map"), e);
+            return new HashMap<>();
+        }
+    }
 
-                        for (String key : keys) {
-                            Setting setting = settings.get(key);
+    @Override
+    public CompletableFuture<Map<String, Object>> getValuesAsync(Collection<String> keys) {
+        return this.getValuesAsync(keys, null);
+    }
 
-                            SettingValue evaluated = this.rolloutEvaluator.evaluate(setting, key, getEvaluateUser(user), settings, new EvaluateLogger(this.clientLogLevel)).value;
-                            Object value = this.parseObject(this.classBySettingType(setting.getType()), evaluated, setting.getType());
-                            result.put(key, value);
+    @Override
+    public CompletableFuture<Map<String, Object>> getValuesAsync(Collection<String> keys, User user) {
+        if (keys == null)
+            throw new IllegalArgumentException("'keys' cannot be null.");
+
+        return this.getSettingsAsync()
+                .thenApply(settingResult -> {
+                    try {
+                        if (!checkSettingsAvailable(settingResult, "empty map")) {
+                            return new HashMap<>();
                         }
 
-                        return result;
+                        this.logMissingKeys(keys, settingResult.settings());
+                        return this.evaluateValues(keys, getEvaluateUser(user), settingResult.settings());
                     } catch (Exception e) {
-                        this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getAllValuesAsync", "empty map"), e);
+                        this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getValuesAsync", "empty map"), e);
                         return new HashMap<>();
                     }
                 });
     }
 
+    @Override
+    public void getValuesForUsers(Collection<String> keys, Iterable<User> users, BiConsumer<User, Map<String, Object>> consumer) {
+        CompletableFuture<Void> future = this.getValuesForUsersAsync(keys, users, consumer, ForkJoinPool.commonPool());
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            this.logger.error(0, "Thread interrupted.", e);
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getValuesForUsers", "empty map"), e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> getValuesForUsersAsync(Collection<String> keys, Iterable<User> users, BiConsumer<User, Map<String, Object>> consumer, Executor executor) {
+        if (keys == null)
+            throw new IllegalArgumentException("'keys' cannot be null.");
+        if (users == null)
+            throw new IllegalArgumentException("'users' cannot be null.");
+        if (consumer == null)
+            throw new IllegalArgumentException("'consumer' cannot be null.");
+        if (executor == null)
+            throw new IllegalArgumentException("'executor' cannot be null.");
+
+        return this.getSettingsAsync()
+                .thenCompose(settingResult -> {
+                    // Without a config there is nothing to pass to the consumer, the error is logged once here.
+                    if (!checkSettingsAvailable(settingResult, "without calling the consumer")) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    Map<String, Setting> settings = settingResult.settings();
+                    this.logMissingKeys(keys, settings);
+                    // Each worker takes the next fixed-size chunk of users when it has finished the previous one, so
+                    // at most one chunk per worker is taken from the iterator ahead of the consumer.
+                    Iterator<User> iterator = users.iterator();
+                    int workerCount = executor instanceof ForkJoinPool
+                            ? ((ForkJoinPool) executor).getParallelism()
+                            : Runtime.getRuntime().availableProcessors();
+                    CompletableFuture<?>[] workers = new CompletableFuture[Math.max(1, workerCount)];
+                    for (int i = 0; i < workers.length; i++) {
+                        workers[i] = CompletableFuture.runAsync(() -> {
+                            List<User> chunk;
+                            while (!(chunk = nextChunk(iterator)).isEmpty()) {
+                                for (User user : chunk) {
+                                    Map<String, Object> values = this.evaluateValuesForUser(keys, user, settings);
+                                    try {
+                                        consumer.accept(user, values);
+                                    } catch (Exception e) {
+                                        this.logger.error(1002, ConfigCatLogMessages.getConsumerError("getValuesForUsers"), e);
+                                    }
+                                }
+                            }
+                        }, executor);
+                    }
+                    return CompletableFuture.allOf(workers);
+                });
+    }
+
+    private static List<User> nextChunk(Iterator<User> iterator) {
+        synchronized (iterator) {
+            List<User> chunk = new ArrayList<>(USER_CHUNK_SIZE);
+            while (chunk.size() < USER_CHUNK_SIZE && iterator.hasNext()) {
+                chunk.add(iterator.next());
+            }
+            return chunk;
+        }
+    }
+
+    /**
+     * Creates a handle of a boolean feature flag. The handle looks up the feature flag once per config and returns
+     * its value without boxing, so it's suited for frequently checked flags.
+     *
+     * @param key          the identifier of the feature flag.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @return the handle of the feature flag.
+     */
+    public FlagHandle.BooleanFlag booleanFlag(String key, boolean defaultValue) {
+        return new FlagHandle.BooleanFlag(this, key, defaultValue);
+    }
+
+    /**
+     * Creates a handle of a whole number setting. The handle looks up the setting once per config and returns its value
+     * without boxing, so it's suited for frequently read settings.
+     *
+     * @param key          the identifier of the setting.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @return the handle of the setting.
+     */
+    public FlagHandle.IntFlag intFlag(String key, int defaultValue) {
+        return new FlagHandle.IntFlag(this, key, defaultValue);
+    }
+
+    /**
+     * Creates a handle of a decimal number setting. The handle looks up the setting once per config and returns its
+     * value without boxing, so it's suited for frequently read settings.
+     *
+     * @param key          the identifier of the setting.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @return the handle of the setting.
+     */
+    public FlagHandle.DoubleFlag doubleFlag(String key, double defaultValue) {
+        return new FlagHandle.DoubleFlag(this, key, defaultValue);
+    }
+
+    /**
+     * Creates a handle of a text setting. The handle looks up the setting once per config, so it's suited for frequently
+     * read settings.
+     *
+     * @param key          the identifier of the setting.
+     * @param defaultValue in case of any failure, this value will be returned.
+     * @return the handle of the setting.
+     */
+    public FlagHandle.StringFlag stringFlag(String key, String defaultValue) {
+        return new FlagHandle.StringFlag(this, key, defaultValue);
+    }
+
     @Override
     public List<EvaluationDetails<Object>> getAllValueDetails() {
         return this.getAllValueDetails(null);
@@ -248,27 +435,29 @@ public final class ConfigCatClient implements ConfigurationProvider {
     @Override
     public CompletableFuture<List<EvaluationDetails<Object>>> getAllValueDetailsAsync(User user) {
         return this.getSettingsAsync()
-                .thenApply(settingResult -> {
+                .thenCompose(settingResult -> {
                     try {
                         if (!checkSettingsAvailable(settingResult, "empty list")) {
-                            return new ArrayList<>();
+                            return CompletableFuture.completedFuture(new ArrayList<>());
                         }
 
                         Map<String, Setting> settings = settingResult.settings();
-                        List<EvaluationDetails<Object>> result = new ArrayList<>();
-
-                        for (String key : settings.keySet()) {
-                            Setting setting = settings.get(key);
-
-                            EvaluationDetails<Object> evaluationDetails = this.evaluateObject(this.classBySettingType(setting.getType()), setting,
-                                    key, user != null ? user : this.defaultUser, settingResult.fetchTime(), settings);
-                            result.add(evaluationDetails);
-                        }
-
-                        return result;
+                        User evaluateUser = user != null ? user : this.defaultUser;
+                        return this.evaluatePartitioned(settings.keySet(), keys -> this.evaluateDetails(keys, evaluateUser, settingResult.fetchTime(), settings))
+                                .thenApply(partitions -> {
+                                    List<EvaluationDetails<Object>> result = new ArrayList<>();
+                                    for (List<EvaluationDetails<Object>> partition : partitions) {
+                                        result.addAll(partition);
+                                    }
+                                    return result;
+                                })
+                                .exceptionally(e -> {
+                                    this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getAllValueDetailsAsync", "empty list"), unwrap(e));
+                                    return new ArrayList<>();
+                                });
                     } catch (Exception e) {
                         this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getAllValueDetailsAsync", "empty list"), e);
-                        return new ArrayList<>();
+                        return CompletableFuture.completedFuture(new ArrayList<>());
                     }
                 });
     }
@@ -394,6 +583,15 @@ public final class ConfigCatClient implements ConfigurationProvider {
         return this.configCatHooks;
     }
 
+    /**
+     * Gets the statistics of the evaluation result cache.
+     *
+     * @return the statistics, or {@code null} if the evaluation result cache is not in use.
+     */
+    public EvaluationCacheStats getEvaluationCacheStats() {
+        return this.evaluationCache != null ? this.evaluationCache.getStats() : null;
+    }
+
 
     @Override
     public CompletableFuture<ClientCacheState> waitForReadyAsync() {
@@ -445,35 +643,67 @@ public final class ConfigCatClient implements ConfigurationProvider {
     }
 
     private CompletableFuture<SettingResult> getSettingsAsync() {
-        if (this.overrideBehaviour != null) {
-            switch (this.overrideBehaviour) {
-                case LOCAL_ONLY:
-                    return CompletableFuture.completedFuture(new SettingResult(this.overrideDataSource.getLocalConfiguration(), Constants.DISTANT_PAST));
-                case REMOTE_OVER_LOCAL:
-                    if (configService == null)
-                        return CompletableFuture.completedFuture(new SettingResult(this.overrideDataSource.getLocalConfiguration(), Constants.DISTANT_PAST));
-                    return this.configService.getSettings()
-                            .thenApply(settingResult -> {
-                                Map<String, Setting> localSettings = new HashMap<>(this.overrideDataSource.getLocalConfiguration());
-                                localSettings.putAll(settingResult.settings());
-                                return new SettingResult(localSettings, settingResult.fetchTime());
-                            });
-                case LOCAL_OVER_REMOTE:
-                    if (configService == null)
-                        return CompletableFuture.completedFuture(new SettingResult(this.overrideDataSource.getLocalConfiguration(), Constants.DISTANT_PAST));
-                    return this.configService.getSettings()
-                            .thenApply(settingResult -> {
-                                Map<String, Setting> localSettings = this.overrideDataSource.getLocalConfiguration();
-                                Map<String, Setting> remoteSettings = new HashMap<>(settingResult.settings());
-                                remoteSettings.putAll(localSettings);
-                                return new SettingResult(remoteSettings, settingResult.fetchTime());
-                            });
+        if (configService == null) {
+            return CompletableFuture.completedFuture(this.getLocalSettings());
+        }
+
+        return this.overrideBehaviour == null
+                ? configService.getSettings()
+                : configService.getSettings().thenApply(this::mergeWithLocalSettings);
+    }
+
+    /**
+     * The synchronous counterpart of {@link #getSettingsAsync()} for the case when no fetch is needed. Returns
+     * {@code null} if the settings are not available without fetching.
+     */
+    private SettingResult getSettingsIfAvailable() {
+        if (configService == null) {
+            return this.getLocalSettings();
+        }
+
+        SettingResult remoteResult = configService.getSettingsIfAvailable();
+        return remoteResult == null || this.overrideBehaviour == null
+                ? remoteResult
+                : this.mergeWithLocalSettings(remoteResult);
+    }
+
+    private SettingResult getLocalSettings() {
+        return this.overrideBehaviour == null
+                ? SettingResult.EMPTY
+                : new SettingResult(this.overrideDataSource.getLocalConfiguration(), Constants.DISTANT_PAST);
+    }
+
+    /**
+     * Merges the flag overrides into the remote settings, the side taking precedence is given by the override behaviour.
+     * The merged map is kept until the remote or the local settings map changes, so repeated evaluations see the same
+     * map instance and the caches keyed by it keep working.
+     */
+    private SettingResult mergeWithLocalSettings(SettingResult remoteResult) {
+        Map<String, Setting> localSettings = this.overrideDataSource.getLocalConfiguration();
+        MergedSettings merged = this.mergedSettings;
+        if (merged != null && merged.localSettings == localSettings) {
+            if (merged.remoteResult == remoteResult) {
+                return merged.result;
+            }
+            if (merged.remoteResult.settings() == remoteResult.settings()) {
+                // Only the fetch time changed.
+                SettingResult result = new SettingResult(merged.result.settings(), remoteResult.fetchTime());
+                this.mergedSettings = new MergedSettings(remoteResult, localSettings, result);
+                return result;
             }
         }
 
-        return configService == null
-                ? CompletableFuture.completedFuture(SettingResult.EMPTY)
-                : configService.getSettings();
+        Map<String, Setting> settings;
+        if (this.overrideBehaviour == OverrideBehaviour.REMOTE_OVER_LOCAL) {
+            settings = new HashMap<>(localSettings);
+            settings.putAll(remoteResult.settings());
+        } else {
+            settings = new HashMap<>(remoteResult.settings());
+            settings.putAll(localSettings);
+        }
+        SettingResult result = new SettingResult(settings, remoteResult.fetchTime());
+        this.mergedSettings = new MergedSettings(remoteResult, localSettings, result);
+        return result;
     }
 
     private boolean checkSettingsAvailable(SettingResult settingResult, String emptyResult) {
@@ -520,6 +750,62 @@ public final class ConfigCatClient implements ConfigurationProvider {
         }
     }
 
+    /**
+     * Evaluates the setting of a flag handle the same way as {@link #getValue} does. Returns the evaluated value or
+     * {@code null} if the default value of the handle has to be used.
+     */
+    SettingValue evaluateFlag(FlagHandle flag, User user) {
+        String key = flag.getKey();
+        SettingResult settingResult;
+        try {
+            settingResult = this.getSettingsIfAvailable();
+            if (settingResult == null) {
+                settingResult = this.getSettingsAsync().get();
+            }
+        } catch (InterruptedException e) {
+            this.logger.error(0, "Thread interrupted.", e);
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithDefaultValue("getValue", key, "defaultValue", String.valueOf(flag.getDefaultValue())), e);
+            return null;
+        }
+
+        try {
+            Setting setting = settingResult.isEmpty() ? null : flag.resolve(settingResult.settings());
+            if (setting == null) {
+                Result<Setting> checkSettingResult = checkSettingAvailable(settingResult, key, flag.getDefaultValue());
+                this.configCatHooks.invokeOnFlagEvaluated(EvaluationDetails.fromError(key, flag.getDefaultValue(), checkSettingResult.error(), user));
+                return null;
+            }
+
+            User evaluateUser = getEvaluateUser(user);
+            EvaluationResult evaluationResult = this.evaluateSetting(setting, key, evaluateUser, settingResult.settings(), null);
+            if (setting.getType() != flag.getType() || evaluationResult.value.getValue(flag.getType()) == null) {
+                // Throws the same error as getValue does for mismatching types.
+                this.parseObject(flag.getValueClass(), evaluationResult.value, setting.getType());
+            }
+            if (this.configCatHooks.hasOnFlagEvaluated()) {
+                this.configCatHooks.invokeOnFlagEvaluated(new EvaluationDetails<>(
+                        evaluationResult.value.getValue(flag.getType()),
+                        key,
+                        evaluationResult.variationId,
+                        evaluateUser,
+                        false,
+                        null,
+                        settingResult.fetchTime(),
+                        evaluationResult.matchedTargetingRule,
+                        evaluationResult.matchedPercentageOption));
+            }
+            return evaluationResult.value;
+        } catch (Exception e) {
+            FormattableLogMessage formattableLogMessage = ConfigCatLogMessages.getSettingEvaluationFailedForOtherReason(key, "defaultValue", flag.getDefaultValue());
+            this.logger.error(2001, formattableLogMessage, e);
+            this.configCatHooks.invokeOnFlagEvaluated(EvaluationDetails.fromError(key, flag.getDefaultValue(), formattableLogMessage + " " + e.getMessage(), user));
+            return null;
+        }
+    }
+
     private <T> Map.Entry<String, T> getKeyAndValueFromSettingsMap(Class<T> classOfT, SettingResult settingResult, String variationId) {
         try {
             if (!checkSettingsAvailable(settingResult, "null")) {
@@ -680,7 +966,11 @@ public final class ConfigCatClient implements ConfigurationProvider {
     }
 
     private EvaluationDetails<Object> evaluateObject(Class<?> classOfT, Setting setting, String key, User user, Long fetchTime, Map<String, Setting> settings) {
-        EvaluationResult evaluationResult = this.rolloutEvaluator.evaluate(setting, key, user, settings, new EvaluateLogger(this.clientLogLevel));
+        return evaluateObject(classOfT, setting, key, user, fetchTime, settings, null);
+    }
+
+    private EvaluationDetails<Object> evaluateObject(Class<?> classOfT, Setting setting, String key, User user, Long fetchTime, Map<String, Setting> settings, EvaluationPass pass) {
+        EvaluationResult evaluationResult = this.evaluateSetting(setting, key, user, settings, pass);
         EvaluationDetails<Object> details = new EvaluationDetails<>(
                 this.parseObject(classOfT, evaluationResult.value, setting.getType()),
                 key,
@@ -695,16 +985,132 @@ public final class ConfigCatClient implements ConfigurationProvider {
         return details;
     }
 
+    private void logMissingKeys(Collection<String> keys, Map<String, Setting> settings) {
+        Set<String> loggedKeys = null;
+        for (String key : keys) {
+            if (settings.containsKey(key)) {
+                continue;
+            }
+            if (loggedKeys == null) {
+                loggedKeys = new HashSet<>();
+            }
+            if (loggedKeys.add(key)) {
+                this.logger.error(1001, ConfigCatLogMessages.getSettingEvaluationFailedDueToMissingKeyWithOmittedValue(key, settings.keySet()));
+            }
+        }
+    }
+
+    private Map<String, Object> evaluateValues(Collection<String> keys, User user, Map<String, Setting> settings) {
+        Map<String, Object> result = new HashMap<>();
+        EvaluationPass pass = new EvaluationPass();
+
+        for (String key : keys) {
+            Setting setting = settings.get(key);
+            if (setting == null) {
+                continue;
+            }
+
+            SettingValue evaluated = this.evaluateSetting(setting, key, user, settings, pass).value;
+            Object value = this.parseObject(this.classBySettingType(setting.getType()), evaluated, setting.getType());
+            result.put(key, value);
+        }
+
+        return result;
+    }
+
+    private List<EvaluationDetails<Object>> evaluateDetails(Collection<String> keys, User user, Long fetchTime, Map<String, Setting> settings) {
+        List<EvaluationDetails<Object>> result = new ArrayList<>();
+        EvaluationPass pass = new EvaluationPass();
+
+        for (String key : keys) {
+            Setting setting = settings.get(key);
+
+            EvaluationDetails<Object> evaluationDetails = this.evaluateObject(this.classBySettingType(setting.getType()), setting,
+                    key, user, fetchTime, settings, pass);
+            result.add(evaluationDetails);
+        }
+
+        return result;
+    }
+
+    /**
+     * Evaluates the keys in consecutive partitions on the evaluation executor, or all at once on the calling thread if
+     * there is no executor or too few keys. The results are in the order of the partitions.
+     */
+    private <R> CompletableFuture<List<R>> evaluatePartitioned(Collection<String> keys, Function<Collection<String>, R> evaluator) {
+        int partitionCount = this.evaluationExecutor == null
+                ? 1
+                : Math.min(Runtime.getRuntime().availableProcessors(), (keys.size() + MIN_EVALUATION_PARTITION_SIZE - 1) / MIN_EVALUATION_PARTITION_SIZE);
+        if (partitionCount <= 1) {
+            return CompletableFuture.completedFuture(Collections.singletonList(evaluator.apply(keys)));
+        }
+
+        List<String> keyList = new ArrayList<>(keys);
+        int partitionSize = (keyList.size() + partitionCount - 1) / partitionCount;
+        List<CompletableFuture<R>> futures = new ArrayList<>();
+        for (int from = 0; from < keyList.size(); from += partitionSize) {
+            List<String> partition = keyList.subList(from, Math.min(from + partitionSize, keyList.size()));
+            futures.add(CompletableFuture.supplyAsync(() -> evaluator.apply(partition), this.evaluationExecutor));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<R> results = new ArrayList<>(futures.size());
+                    for (CompletableFuture<R> future : futures) {
+                        results.add(future.join());
+                    }
+                    return results;
+                });
+    }
+
+    private static Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof Exception ? (Exception) cause : new CompletionException(cause);
+    }
+
+    private Map<String, Object> evaluateValuesForUser(Collection<String> keys, User user, Map<String, Setting> settings) {
+        try {
+            return this.evaluateValues(keys, getEvaluateUser(user), settings);
+        } catch (Exception e) {
+            this.logger.error(1002, ConfigCatLogMessages.getSettingEvaluationErrorWithEmptyValue("getValuesForUsers", "empty map"), e);
+            return new HashMap<>();
+        }
+    }
+
+    private EvaluationResult evaluateSetting(Setting setting, String key, User user, Map<String, Setting> settings, EvaluationPass pass) {
+        if (this.evaluationCache == null) {
+            return this.rolloutEvaluator.evaluate(setting, key, user, settings, EvaluateLogger.forLogLevel(this.clientLogLevel), pass);
+        }
+        EvaluationResult evaluationResult = this.evaluationCache.get(setting, key, user, settings);
+        if (evaluationResult == null) {
+            evaluationResult = this.rolloutEvaluator.evaluate(setting, key, user, settings, EvaluateLogger.forLogLevel(this.clientLogLevel), pass);
+            this.evaluationCache.put(setting, key, user, settings, evaluationResult);
+        }
+        return evaluationResult;
+    }
+
     private <T> EvaluationDetails<T> evaluate(Class<T> classOfT, Setting setting, String key, User user, Long fetchTime, Map<String, Setting> settings) {
         return evaluateObject(classOfT, setting, key, user, fetchTime, settings).asTypeSpecific();
     }
 
+    private static final class MergedSettings {
+        final SettingResult remoteResult;
+        final Map<String, Setting> localSettings;
+        final SettingResult result;
+
+        MergedSettings(SettingResult remoteResult, Map<String, Setting> localSettings, SettingResult result) {
+            this.remoteResult = remoteResult;
+            this.localSettings = localSettings;
+            this.result = result;
+        }
+    }
+
     /**
      * Options for configuring  {@link ConfigCatClient} instance.
      */
     public static class Options {
         private final HttpOptions httpOptions = new HttpOptions();
         private ConfigCache cache = new NullConfigCache();
+        private CacheSyncPolicy cacheSyncPolicy = CacheSyncPolicy.always();
         private String baseUrl;
         private PollingMode pollingMode = PollingModes.autoPoll();
         private LogLevel logLevel = LogLevel.WARNING;
@@ -715,6 +1121,8 @@ public final class ConfigCatClient implements ConfigurationProvider {
         private boolean offline = false;
         private final ConfigCatHooks configCatHooks = new ConfigCatHooks();
         private LogFilterFunction logFilter;
+        private int evaluationCacheSize;
+        private Executor evaluationExecutor;
 
         /**
          * Sets the internal cache implementation.
@@ -725,6 +1133,19 @@ public final class ConfigCatClient implements ConfigurationProvider {
             this.cache = cache;
         }
 
+        /**
+         * Sets how often the config is synchronized with the cache. By default the cache is read whenever the config is
+         * accessed.
+         *
+         * @param cacheSyncPolicy the {@link CacheSyncPolicy}.
+         */
+        public void cacheSyncPolicy(CacheSyncPolicy cacheSyncPolicy) {
+            if (cacheSyncPolicy == null)
+                throw new IllegalArgumentException("'cacheSyncPolicy' cannot be null.");
+
+            this.cacheSyncPolicy = cacheSyncPolicy;
+        }
+
         /**
          * Sets the base ConfigCat CDN url.
          *
@@ -826,6 +1247,35 @@ public final class ConfigCatClient implements ConfigurationProvider {
             this.logFilter = logFilter;
         }
 
+        /**
+         * Enables caching up to {@code maxSize} evaluation results. Results are keyed by the setting key and the values
+         * of the User Object attributes the setting actually reads, so they are shared by users only differing in other
+         * attributes. Results of a previous config are never served and are dropped as they are looked up or evicted.
+         * Settings using date comparators are not cached. The cache is not used when flag overrides are configured or
+         * the log level is {@link LogLevel#INFO} or lower. Warnings emitted during evaluation are only logged when a
+         * result is computed, not when it is served from the cache.
+         *
+         * @param maxSize the maximum number of cached evaluation results.
+         */
+        public void evaluationCache(int maxSize) {
+            if (maxSize <= 0) {
+                throw new IllegalArgumentException("'maxSize' must be greater than 0.");
+            }
+            this.evaluationCacheSize = maxSize;
+        }
+
+        /**
+         * Sets the executor used to evaluate large configs in parallel in {@code getAllValues} and
+         * {@code getAllValueDetails}. The settings are split into consecutive partitions which are evaluated
+         * concurrently and merged in their original order. Hooks and logs of the evaluations may be emitted from the
+         * executor's threads, in any order.
+         *
+         * @param evaluationExecutor the executor running the evaluations.
+         */
+        public void evaluationExecutor(Executor evaluationExecutor) {
+            this.evaluationExecutor = evaluationExecutor;
+        }
+
         private boolean isBaseURLCustom() {
             return this.baseUrl != null && !this.baseUrl.isEmpty();
         }
@@ -15,6 +15,7 @@ public class ConfigCatHooks {
     private final List<Runnable> onClientReady = new ArrayList<>();
     private final List<Consumer<EvaluationDetails<Object>>> onFlagEvaluated = new ArrayList<>();
     private final List<Consumer<String>> onError = new ArrayList<>();
+    private volatile boolean hasOnFlagEvaluated;
 
     /**
      * Subscribes to the onReady event. This event is fired when the SDK reaches the ready state.
@@ -96,6 +97,7 @@ public class ConfigCatHooks {
         lock.writeLock().lock();
         try {
             this.onFlagEvaluated.add(callback);
+            this.hasOnFlagEvaluated = true;
         } finally {
             lock.writeLock().unlock();
         }
@@ -141,6 +143,13 @@ public class ConfigCatHooks {
         }
     }
 
+    /**
+     * Whether there is any onFlagEvaluated subscriber, so the evaluation details can be left unbuilt otherwise.
+     */
+    boolean hasOnFlagEvaluated() {
+        return this.hasOnFlagEvaluated;
+    }
+
     void invokeOnFlagEvaluated(EvaluationDetails<Object> evaluationDetails) {
         lock.readLock().lock();
         try {
@@ -158,6 +167,7 @@ public class ConfigCatHooks {
             this.onConfigChanged.clear();
             this.onError.clear();
             this.onFlagEvaluated.clear();
+            this.hasOnFlagEvaluated = false;
             this.onClientReady.clear();
         } finally {
             lock.writeLock().unlock();
@@ -79,6 +79,17 @@ final class ConfigCatLogMessages {
         return new FormattableLogMessageWithKeySet("Failed to evaluate setting '%s' (the key was not found in config JSON). Returning the `%s` parameter that you specified in your application: '%s'. Available keys: [%s].", key, defaultParamName, defaultParamValue, availableKeysSet);
     }
 
+    /**
+     * Log message for Setting Evaluation Failed Due To Missing Key error when the key is left out of the result. The log eventId is 1001.
+     *
+     * @param key              The feature flag key.
+     * @param availableKeysSet The set of available keys in the settings.
+     * @return The formattable log message.
+     */
+    public static FormattableLogMessage getSettingEvaluationFailedDueToMissingKeyWithOmittedValue(final String key, final Set<String> availableKeysSet) {
+        return new FormattableLogMessageWithKeySet("Failed to evaluate setting '%s' (the key was not found in config JSON). Leaving it out of the result. Available keys: [%s].", key, availableKeysSet);
+    }
+
     /**
      * Log message for Setting Evaluation errors when the method returns with default value. The log eventId is 1002.
      *
@@ -103,6 +114,16 @@ final class ConfigCatLogMessages {
         return new FormattableLogMessage("Error occurred in the `%s` method. Returning %s.", methodName, emptyResult);
     }
 
+    /**
+     * Log message for errors thrown by the consumer passed to a method. The log eventId is 1002.
+     *
+     * @param methodName The method name where the error is logged.
+     * @return The formattable log message.
+     */
+    public static FormattableLogMessage getConsumerError(final String methodName) {
+        return new FormattableLogMessage("Error occurred in the consumer passed to the `%s` method.", methodName);
+    }
+
     /**
      * Log message for Force Refresh errors. The log eventId is 1003.
      *
@@ -3,16 +3,21 @@ package com.configcat;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 public class ConfigService implements Closeable {
 
     private static final String CACHE_BASE = "%s_" + Constants.CONFIG_JSON_NAME + "_" + Constants.SERIALIZATION_FORMAT_VERSION;
+    private static final long CACHE_READ_TIMEOUT_MILLIS = 10_000;
 
     private final AtomicReference<Entry> cachedEntry = new AtomicReference<>(Entry.EMPTY);
     private final ConfigCache cache;
@@ -28,7 +33,12 @@ public class ConfigService implements Closeable {
     private final AtomicBoolean offline;
     private final ReentrantLock lock = new ReentrantLock(true);
     private final ConfigCatHooks configCatHooks;
-
+    private final CacheSyncPolicy cacheSyncPolicy;
+    private volatile boolean cacheSynced;
+    private volatile long lastCacheSync;
+    private final AtomicLong cacheReadStartedAt = new AtomicLong(0);
+    private final CompletableFuture<Void> initialCacheRead;
+    private final CompletableFuture<Entry> initialRead;
 
     public ConfigService(String sdkKey,
                          ConfigFetcher configFetcher,
@@ -37,7 +47,19 @@ public class ConfigService implements Closeable {
                          ConfigCatLogger logger,
                          boolean offline,
                          ConfigCatHooks configCatHooks) {
+        this(sdkKey, configFetcher, pollingMode, cache, logger, offline, configCatHooks, CacheSyncPolicy.always());
+    }
+
+    public ConfigService(String sdkKey,
+                         ConfigFetcher configFetcher,
+                         PollingMode pollingMode,
+                         ConfigCache cache,
+                         ConfigCatLogger logger,
+                         boolean offline,
+                         ConfigCatHooks configCatHooks,
+                         CacheSyncPolicy cacheSyncPolicy) {
         this.configFetcher = configFetcher;
+        this.cacheSyncPolicy = cacheSyncPolicy;
         this.pollingMode = pollingMode;
         this.cacheKey = Utils.sha1(String.format(CACHE_BASE, sdkKey));
         this.cache = cache;
@@ -48,6 +70,8 @@ public class ConfigService implements Closeable {
         if (pollingMode instanceof AutoPollingMode && !offline) {
             AutoPollingMode autoPollingMode = (AutoPollingMode) pollingMode;
 
+            this.initialRead = CompletableFuture.completedFuture(Entry.EMPTY);
+            this.initialCacheRead = CompletableFuture.completedFuture(null);
             startPoll(autoPollingMode);
 
             this.initScheduler = Executors.newSingleThreadScheduledExecutor();
@@ -66,9 +90,30 @@ public class ConfigService implements Closeable {
             }, autoPollingMode.getMaxInitWaitTimeSeconds(), TimeUnit.SECONDS);
 
         } else {
-            // Sync up with cache before reporting ready state
-            cachedEntry.set(readCache());
-            setInitialized();
+            // Sync up with cache before reporting ready state. The read is applied when it completes without blocking
+            // the constructor, until then the settings and refreshes wait for it. A read that doesn't complete in time
+            // (or before closing) is given up on, and the service starts without cached data.
+            long now = System.currentTimeMillis();
+            cacheReadStartedAt.set(now);
+            CompletableFuture<Entry> initialRead = syncCache();
+            this.initialRead = initialRead;
+            if (!initialRead.isDone()) {
+                this.initScheduler = Executors.newSingleThreadScheduledExecutor();
+                this.initScheduler.schedule(() -> {
+                    if (initialRead.complete(Entry.EMPTY)) {
+                        this.logger.error(2200, ConfigCatLogMessages.CONFIG_SERVICE_CACHE_READ_ERROR, new TimeoutException("The initial cache read did not complete in " + CACHE_READ_TIMEOUT_MILLIS + " ms."));
+                    }
+                }, CACHE_READ_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            }
+            this.initialCacheRead = initialRead.handle((fromCache, exception) -> {
+                cacheReadStartedAt.compareAndSet(now, 0);
+                if (fromCache != null) {
+                    cachedEntry.compareAndSet(Entry.EMPTY, fromCache);
+                }
+                if (initScheduler != null) initScheduler.shutdown();
+                setInitialized();
+                return null;
+            });
         }
     }
 
@@ -92,46 +137,58 @@ public class ConfigService implements Closeable {
             logger.warn(3200, offlineWarning);
             return CompletableFuture.completedFuture(new RefreshResult(false, offlineWarning));
         }
+        if (!initialCacheRead.isDone()) {
+            return initialCacheRead.thenCompose(ignored -> refresh());
+        }
         return fetchIfOlder(Constants.DISTANT_FUTURE, false)
                 .thenApply(entryResult -> new RefreshResult(entryResult.error() == null, entryResult.error()));
     }
 
     public CompletableFuture<SettingResult> getSettings() {
+        if (!initialCacheRead.isDone()) {
+            // Whether the cached entry is usable is only known once the initial cache read is applied.
+            return initialCacheRead.thenCompose(ignored -> getSettings());
+        }
         if (pollingMode instanceof LazyLoadingMode) {
-            LazyLoadingMode lazyLoadingMode = (LazyLoadingMode) pollingMode;
-            return fetchIfOlder(System.currentTimeMillis() - (lazyLoadingMode.getCacheRefreshIntervalInSeconds() * 1000L), false)
-                    .thenApply(entryResult -> !entryResult.value().isEmpty()
-                            ? new SettingResult(entryResult.value().getConfig().getEntries(), entryResult.value().getFetchTime())
-                            : SettingResult.EMPTY);
+            return fetchIfOlder(getLazyLoadingThreshold(), false)
+                    .thenApply(entryResult -> entryResult.value().getSettingResult());
         } else {
-            long threshold = Constants.DISTANT_PAST;
-            if (!initialized.get() && pollingMode instanceof AutoPollingMode) {
-                AutoPollingMode autoPollingMode = (AutoPollingMode) pollingMode;
-                threshold = System.currentTimeMillis() - (autoPollingMode.getAutoPollRateInSeconds() * 1000L);
-            }
-            return fetchIfOlder(threshold, initialized.get()) // If we are initialized, we prefer the cached results
-                    .thenApply(entryResult -> !entryResult.value().isEmpty()
-                            ? new SettingResult(entryResult.value().getConfig().getEntries(), entryResult.value().getFetchTime())
-                            : SettingResult.EMPTY);
+            return fetchIfOlder(getThreshold(), initialized.get()) // If we are initialized, we prefer the cached results
+                    .thenApply(entryResult -> entryResult.value().getSettingResult());
         }
 
     }
 
-    private CompletableFuture<Result<Entry>> fetchIfOlder(long threshold, boolean preferCached) {
-        // Sync up with the cache and use it when it's not expired.
-        Entry fromCache = readCache();
-        if (!fromCache.isEmpty() && !fromCache.getETag().equals(cachedEntry.get().getETag()) && fromCache.getFetchTime() > cachedEntry.get().getFetchTime()) {
-            configCatHooks.invokeOnConfigChanged(fromCache.getConfig().getEntries());
-            cachedEntry.set(fromCache);
+    /**
+     * Returns the settings directly when they can be served from memory, without initiating a fetch. Returns
+     * {@code null} when a fetch is needed, in which case the caller has to fall back to {@link #getSettings()}.
+     */
+    SettingResult getSettingsIfAvailable() {
+        if (!initialCacheRead.isDone()) {
+            return null;
         }
-        // Cache isn't expired
-        if (cachedEntry.get().getFetchTime() > threshold) {
-            setInitialized();
-            return CompletableFuture.completedFuture(Result.success(cachedEntry.get()));
+        Entry entry = pollingMode instanceof LazyLoadingMode
+                ? getCachedEntryIfUsable(getLazyLoadingThreshold(), false)
+                : getCachedEntryIfUsable(getThreshold(), initialized.get());
+        return entry != null ? entry.getSettingResult() : null;
+    }
+
+    private long getLazyLoadingThreshold() {
+        return System.currentTimeMillis() - (((LazyLoadingMode) pollingMode).getCacheRefreshIntervalInSeconds() * 1000L);
+    }
+
+    private long getThreshold() {
+        if (!initialized.get() && pollingMode instanceof AutoPollingMode) {
+            AutoPollingMode autoPollingMode = (AutoPollingMode) pollingMode;
+            return System.currentTimeMillis() - (autoPollingMode.getAutoPollRateInSeconds() * 1000L);
         }
-        // If we are in offline mode or the caller prefers cached values, do not initiate fetch.
-        if (offline.get() || preferCached) {
-            return CompletableFuture.completedFuture(Result.success(cachedEntry.get()));
+        return Constants.DISTANT_PAST;
+    }
+
+    private CompletableFuture<Result<Entry>> fetchIfOlder(long threshold, boolean preferCached) {
+        Entry usableEntry = getCachedEntryIfUsable(threshold, preferCached);
+        if (usableEntry != null) {
+            return CompletableFuture.completedFuture(Result.success(usableEntry));
         }
 
         lock.lock();
@@ -149,15 +206,59 @@ public class ConfigService implements Closeable {
         }
     }
 
+    /**
+     * Syncs up with the cache and returns the in-memory entry if it can be used without fetching, {@code null} otherwise.
+     */
+    private Entry getCachedEntryIfUsable(long threshold, boolean preferCached) {
+        // Sync up with the cache (as often as the policy allows) and use it when it's not expired. A read that doesn't
+        // complete right away is applied when it does, until then the in-memory entry is used.
+        long now = System.currentTimeMillis();
+        if (cacheSyncPolicy.shouldSync(cacheSynced, lastCacheSync, now, cachedEntry.get().getFetchTime() <= threshold)
+                && startCacheRead(now)) {
+            syncCache().whenComplete((fromCache, exception) -> {
+                cacheReadStartedAt.compareAndSet(now, 0);
+                if (fromCache != null) {
+                    updateFromCache(fromCache);
+                }
+            });
+        }
+        // Cache isn't expired
+        if (cachedEntry.get().getFetchTime() > threshold) {
+            setInitialized();
+            return cachedEntry.get();
+        }
+        // If we are in offline mode or the caller prefers cached values, do not initiate fetch.
+        if (offline.get() || preferCached) {
+            return cachedEntry.get();
+        }
+        return null;
+    }
+
+    /**
+     * Claims the next cache read unless one is already running. A read that hasn't completed within the timeout is
+     * given up on, so a cache that never answers doesn't stop the syncing for good.
+     */
+    private boolean startCacheRead(long now) {
+        long startedAt = cacheReadStartedAt.get();
+        return (startedAt == 0 || now - startedAt > CACHE_READ_TIMEOUT_MILLIS) && cacheReadStartedAt.compareAndSet(startedAt, now);
+    }
+
+    private void updateFromCache(Entry fromCache) {
+        if (!fromCache.isEmpty() && !fromCache.getETag().equals(cachedEntry.get().getETag()) && fromCache.getFetchTime() > cachedEntry.get().getFetchTime()) {
+            configCatHooks.invokeOnConfigChanged(fromCache.getConfig().getEntries());
+            cachedEntry.set(fromCache);
+        }
+    }
+
     @Override
     public void close() throws IOException {
         if (!this.closed.compareAndSet(false, true)) {
             return;
         }
-        if (pollingMode instanceof AutoPollingMode) {
-            if (pollScheduler != null) this.pollScheduler.shutdown();
-            if (initScheduler != null) this.initScheduler.shutdown();
-        }
+        if (pollScheduler != null) this.pollScheduler.shutdown();
+        if (initScheduler != null) this.initScheduler.shutdown();
+        // Release the callers waiting for an initial cache read that is still pending.
+        this.initialRead.complete(Entry.EMPTY);
         this.configFetcher.close();
     }
 
@@ -192,19 +293,22 @@ public class ConfigService implements Closeable {
 
     private void processResponse(FetchResponse response) {
         Entry previousEntry = cachedEntry.get();
+        // The cache is written before taking the lock, so a slow cache doesn't hold up the callers of the running task.
+        if (response.isFetched()) {
+            cachedEntry.set(response.entry());
+            writeCache(response.entry());
+        } else if (response.isFetchTimeUpdatable()) {
+            Entry entry = previousEntry.withFetchTime(System.currentTimeMillis());
+            cachedEntry.set(entry);
+            touchCache(entry);
+        }
         lock.lock();
         try {
             if (response.isFetched()) {
                 Entry entry = response.entry();
-                cachedEntry.set(entry);
-                writeCache(entry);
                 configCatHooks.invokeOnConfigChanged(entry.getConfig().getEntries());
                 completeRunningTask(Result.success(entry));
             } else {
-                if (response.isFetchTimeUpdatable()) {
-                    cachedEntry.set(previousEntry.withFetchTime(System.currentTimeMillis()));
-                    writeCache(cachedEntry.get());
-                }
                 completeRunningTask(response.isFailed()
                         ? Result.error(response.error(), cachedEntry.get())
                         : Result.success(cachedEntry.get()));
@@ -220,28 +324,72 @@ public class ConfigService implements Closeable {
         runningTask = null;
     }
 
-    private Entry readCache() {
-        try {
-            String cachedConfigJson = cache.read(cacheKey);
-            if (cachedConfigJson != null && cachedConfigJson.equals(cachedEntry.get().getCacheString())) {
-                return Entry.EMPTY;
-            }
-            Entry deserialized = Entry.fromString(cachedConfigJson);
-            return deserialized == null || deserialized.getConfig() == null ? Entry.EMPTY : deserialized;
-        } catch (Exception e) {
-            this.logger.error(2200, ConfigCatLogMessages.CONFIG_SERVICE_CACHE_READ_ERROR, e);
-            return Entry.EMPTY;
-        }
+    private CompletableFuture<Entry> syncCache() {
+        lastCacheSync = System.currentTimeMillis();
+        cacheSynced = true;
+        return readCache();
+    }
+
+    private CompletableFuture<Entry> readCache() {
+        Entry knownEntry = cachedEntry.get();
+        return callCache(() -> cache.readAsync(cacheKey, knownEntry.isEmpty() ? null : knownEntry.getETag()))
+                .handle((cachedConfigJson, exception) -> {
+                    try {
+                        if (exception != null) {
+                            throw toException(exception);
+                        }
+                        if (cachedConfigJson != null && cachedConfigJson.equals(knownEntry.getCacheString())) {
+                            return Entry.EMPTY;
+                        }
+                        Entry deserialized = Entry.fromString(cachedConfigJson);
+                        return deserialized == null || deserialized.getConfig() == null ? Entry.EMPTY : deserialized;
+                    } catch (Exception e) {
+                        this.logger.error(2200, ConfigCatLogMessages.CONFIG_SERVICE_CACHE_READ_ERROR, e);
+                        return Entry.EMPTY;
+                    }
+                });
     }
 
     private void writeCache(Entry entry) {
+        callCache(() -> cache.writeAsync(cacheKey, entry.getCacheString()))
+                .whenComplete((ignored, exception) -> {
+                    if (exception != null) {
+                        logger.error(2201, ConfigCatLogMessages.CONFIG_SERVICE_CACHE_WRITE_ERROR, toException(exception));
+                    }
+                });
+    }
+
+    private void touchCache(Entry entry) {
+        callCache(() -> cache.touchAsync(cacheKey, entry.getFetchTime()))
+                .whenComplete((touched, exception) -> {
+                    if (exception != null) {
+                        logger.error(2201, ConfigCatLogMessages.CONFIG_SERVICE_CACHE_WRITE_ERROR, toException(exception));
+                    } else if (!Boolean.TRUE.equals(touched)) {
+                        writeCache(entry);
+                    }
+                });
+    }
+
+    /**
+     * Calls an asynchronous cache method, turning an exception thrown by the call into a failed future and a missing
+     * future into a completed one.
+     */
+    private static <T> CompletableFuture<T> callCache(Supplier<CompletableFuture<T>> call) {
         try {
-            cache.write(cacheKey, entry.getCacheString());
+            CompletableFuture<T> future = call.get();
+            return future != null ? future : CompletableFuture.completedFuture(null);
         } catch (Exception e) {
-            logger.error(2201, ConfigCatLogMessages.CONFIG_SERVICE_CACHE_WRITE_ERROR, e);
+            CompletableFuture<T> future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
         }
     }
 
+    private static Exception toException(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+        return cause instanceof Exception ? (Exception) cause : new Exception(cause);
+    }
+
     private ClientCacheState determineCacheState(Entry cachedEntry) {
         if (cachedEntry.isEmpty()) {
             return ClientCacheState.NO_FLAG_DATA;
@@ -2,9 +2,13 @@ package com.configcat;
 
 import java.io.Closeable;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 
 /**
  * Defines the public interface of the {@link ConfigCatClient}.
@@ -132,6 +136,110 @@ public interface ConfigurationProvider extends Closeable {
      */
     CompletableFuture<Map<String, Object>> getAllValuesAsync(User user);
 
+    /**
+     * Gets the values of the given feature flags or settings synchronously. The settings are evaluated on the same
+     * config snapshot and share their intermediate results. Keys not found in the config are omitted.
+     *
+     * @param keys the keys of the feature flags or settings.
+     * @return a collection of the values.
+     */
+    default Map<String, Object> getValues(Collection<String> keys) {
+        return getValues(keys, null);
+    }
+
+    /**
+     * Gets the values of the given feature flags or settings synchronously. The settings are evaluated on the same
+     * config snapshot and share their intermediate results. Keys not found in the config are omitted.
+     * <p>
+     * The default implementation picks the values out of {@link #getAllValues(User)}.
+     *
+     * @param keys the keys of the feature flags or settings.
+     * @param user the user object.
+     * @return a collection of the values.
+     */
+    default Map<String, Object> getValues(Collection<String> keys, User user) {
+        Map<String, Object> allValues = getAllValues(user);
+        Map<String, Object> values = new HashMap<>();
+        for (String key : keys) {
+            if (allValues.containsKey(key)) {
+                values.put(key, allValues.get(key));
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Gets the values of the given feature flags or settings asynchronously. The settings are evaluated on the same
+     * config snapshot and share their intermediate results. Keys not found in the config are omitted.
+     *
+     * @param keys the keys of the feature flags or settings.
+     * @return a future which computes the collection of the values.
+     */
+    default CompletableFuture<Map<String, Object>> getValuesAsync(Collection<String> keys) {
+        return getValuesAsync(keys, null);
+    }
+
+    /**
+     * Gets the values of the given feature flags or settings asynchronously. The settings are evaluated on the same
+     * config snapshot and share their intermediate results. Keys not found in the config are omitted.
+     * <p>
+     * The default implementation picks the values out of {@link #getAllValuesAsync(User)}.
+     *
+     * @param keys the keys of the feature flags or settings.
+     * @param user the user object.
+     * @return a future which computes the collection of the values.
+     */
+    default CompletableFuture<Map<String, Object>> getValuesAsync(Collection<String> keys, User user) {
+        return getAllValuesAsync(user).thenApply(allValues -> {
+            Map<String, Object> values = new HashMap<>();
+            for (String key : keys) {
+                if (allValues.containsKey(key)) {
+                    values.put(key, allValues.get(key));
+                }
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Evaluates the given feature flags or settings for each user synchronously, spreading the work over the common
+     * {@link ForkJoinPool}. All users are evaluated on the same config snapshot and the results are passed to the
+     * consumer as soon as they are computed, without collecting them. The consumer may be called concurrently and in any
+     * order. Keys not found in the config are omitted. If the config JSON is not available, the error is logged and the
+     * consumer is not called.
+     * <p>
+     * The default implementation evaluates the users one by one on the calling thread with
+     * {@link #getValues(Collection, User)}, so it passes empty maps when the config JSON is not available.
+     *
+     * @param keys     the keys of the feature flags or settings.
+     * @param users    the user objects.
+     * @param consumer the consumer of each user object and its values.
+     */
+    default void getValuesForUsers(Collection<String> keys, Iterable<User> users, BiConsumer<User, Map<String, Object>> consumer) {
+        for (User user : users) {
+            consumer.accept(user, getValues(keys, user));
+        }
+    }
+
+    /**
+     * Evaluates the given feature flags or settings for each user asynchronously, spreading the work over the given
+     * executor. All users are evaluated on the same config snapshot and the results are passed to the consumer as soon
+     * as they are computed, without collecting them. The consumer may be called concurrently and in any order. Keys not
+     * found in the config are omitted. If the config JSON is not available, the error is logged and the consumer is not
+     * called.
+     * <p>
+     * The default implementation runs {@link #getValuesForUsers(Collection, Iterable, BiConsumer)} on the executor.
+     *
+     * @param keys     the keys of the feature flags or settings.
+     * @param users    the user objects.
+     * @param consumer the consumer of each user object and its values.
+     * @param executor the executor running the evaluations.
+     * @return a future which completes when all users are evaluated.
+     */
+    default CompletableFuture<Void> getValuesForUsersAsync(Collection<String> keys, Iterable<User> users, BiConsumer<User, Map<String, Object>> consumer, Executor executor) {
+        return CompletableFuture.runAsync(() -> getValuesForUsers(keys, users, consumer), executor);
+    }
+
     /**
      * Gets the detailed values of all feature flags or settings synchronously.
      *
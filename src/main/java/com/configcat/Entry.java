@@ -3,8 +3,11 @@ package com.configcat;
 public class Entry {
     private final Config config;
     private final String eTag;
-    private final String cacheString;
+    private final String configJson;
     private final long fetchTime;
+    // Built on first use, entries that are never written to or compared with the cache don't need it.
+    private volatile String cacheString;
+    private volatile SettingResult settingResult;
 
     public Config getConfig() {
         return config;
@@ -19,31 +22,46 @@ public class Entry {
     }
 
     public String getCacheString() {
-        return cacheString;
+        String result = cacheString;
+        if (result == null) {
+            result = serialize(fetchTime, eTag, configJson);
+            cacheString = result;
+        }
+        return result;
     }
 
     public Entry withFetchTime(long fetchTime) {
-        String cacheString = getCacheString();
-        int fetchTimeIndex = cacheString.indexOf("\n");
-        if (fetchTimeIndex == -1) {
-            return this;
+        return new Entry(getConfig(), getETag(), configJson, fetchTime);
+    }
+
+    /**
+     * Returns the settings of this entry, created once and shared by the evaluations using this entry.
+     */
+    SettingResult getSettingResult() {
+        if (isEmpty()) {
+            return SettingResult.EMPTY;
         }
-        int eTagIndex = cacheString.indexOf("\n", fetchTimeIndex + 1);
-        if (eTagIndex == -1) {
-            return this;
+        SettingResult result = settingResult;
+        if (result == null) {
+            result = new SettingResult(config.getEntries(), fetchTime);
+            settingResult = result;
         }
-        String configJson = cacheString.substring(eTagIndex + 1);
-        return new Entry(getConfig(), getETag(), configJson, fetchTime);
+        return result;
     }
 
     public boolean isExpired(long threshold) {
         return fetchTime <= threshold ;
     }
     public Entry(Config config, String eTag, String configJson, long fetchTime) {
+        this(config, eTag, configJson, fetchTime, null);
+    }
+
+    private Entry(Config config, String eTag, String configJson, long fetchTime, String cacheString) {
         this.config = config;
         this.eTag = eTag;
-        this.cacheString = serialize(fetchTime, eTag, configJson);
+        this.configJson = configJson;
         this.fetchTime = fetchTime;
+        this.cacheString = cacheString;
     }
 
     boolean isEmpty() {
@@ -83,7 +101,9 @@ public class Entry {
         }
         try {
             Config config = Utils.deserializeConfig(configJson);
-            return new Entry(config, eTag, configJson, fetchTimeUnixMillis);
+            // The value can be reused as the serialized form unless the fetch time has a non-canonical format.
+            String cacheString = fetchTimeRaw.equals(Long.toString(fetchTimeUnixMillis)) ? cacheValue : null;
+            return new Entry(config, eTag, configJson, fetchTimeUnixMillis, cacheString);
         } catch (Exception e) {
             throw new IllegalArgumentException("Invalid config JSON content: " + configJson);
         }
@@ -13,11 +13,21 @@ public class EvaluateLogger {
     public static final String INVALID_REFERENCE = "<invalid reference>";
 
     private static final int MAX_LIST_ELEMENT = 10;
-    private final StringBuilder stringBuilder = new StringBuilder();
+    // Keeps no state, so it can be shared by all evaluations that are not logged.
+    private static final EvaluateLogger NOT_LOGGABLE = new EvaluateLogger(LogLevel.NO_LOG);
+    private final StringBuilder stringBuilder;
 
     public EvaluateLogger(LogLevel logLevel) {
         indentLevel = 0;
         isLoggable = logLevel.ordinal() <= LogLevel.INFO.ordinal();
+        stringBuilder = isLoggable ? new StringBuilder() : null;
+    }
+
+    /**
+     * Returns a new logger if the evaluation is logged at the given log level, or the shared no-op logger otherwise.
+     */
+    static EvaluateLogger forLogLevel(LogLevel logLevel) {
+        return logLevel.ordinal() <= LogLevel.INFO.ordinal() ? new EvaluateLogger(logLevel) : NOT_LOGGABLE;
     }
 
     private int indentLevel;
@@ -122,6 +132,56 @@ public class EvaluateLogger {
         append("Returning '" + returnValue + "'.");
     }
 
+    /**
+     * Appends the return value. Unlike {@link #logReturnValue(String)}, the value is only formatted when the evaluation
+     * is logged.
+     */
+    public void logReturnValue(SettingValue returnValue) {
+        if (!isLoggable) {
+            return;
+        }
+        logReturnValue(returnValue.toString());
+    }
+
+    /**
+     * Appends the user condition. The comparator is validated even when the evaluation is not logged.
+     */
+    public final void logUserCondition(UserCondition userCondition) {
+        if (!isLoggable) {
+            if (UserComparator.fromId(userCondition.getComparator()) == null) {
+                throw new IllegalArgumentException("Comparison operator is invalid.");
+            }
+            return;
+        }
+        append(formatUserCondition(userCondition));
+    }
+
+    /**
+     * Appends the segment condition. The comparator is validated even when the evaluation is not logged.
+     */
+    public final void logSegmentFlagCondition(SegmentCondition segmentCondition, Segment segment) {
+        if (!isLoggable) {
+            if (SegmentComparator.fromId(segmentCondition.getSegmentComparator()) == null) {
+                throw new IllegalArgumentException("Segment comparison operator is invalid.");
+            }
+            return;
+        }
+        append(formatSegmentFlagCondition(segmentCondition, segment));
+    }
+
+    /**
+     * Appends the prerequisite flag condition. The comparator is validated even when the evaluation is not logged.
+     */
+    public final void logPrerequisiteFlagCondition(PrerequisiteFlagCondition prerequisiteFlagCondition) {
+        if (!isLoggable) {
+            if (PrerequisiteComparator.fromId(prerequisiteFlagCondition.getPrerequisiteComparator()) == null) {
+                throw new IllegalArgumentException("Prerequisite Flag comparison operator is invalid.");
+            }
+            return;
+        }
+        append(formatPrerequisiteFlagCondition(prerequisiteFlagCondition));
+    }
+
     public void logTargetingRules() {
         if (!isLoggable) {
             return;
@@ -177,6 +237,16 @@ public class EvaluateLogger {
         decreaseIndentLevel();
     }
 
+    /**
+     * Appends the consequence of the targeting rule, building the message of the error only if the evaluation is logged.
+     */
+    void logTargetingRuleConsequence(TargetingRule targetingRule, RolloutEvaluatorException error, boolean isMatch, boolean newLine) {
+        if (!isLoggable) {
+            return;
+        }
+        logTargetingRuleConsequence(targetingRule, error != null ? error.getMessage() : null, isMatch, newLine);
+    }
+
     public void logPercentageEvaluationReturnValue(int hashValue, int i, int percentage, SettingValue settingValue) {
         if (!isLoggable) {
             return;
@@ -225,6 +295,16 @@ public class EvaluateLogger {
         append(")");
     }
 
+    /**
+     * Appends the segment evaluation error, building the message of the error only if the evaluation is logged.
+     */
+    void logSegmentEvaluationError(SegmentCondition segmentCondition, Segment segment, RolloutEvaluatorException error) {
+        if (!isLoggable) {
+            return;
+        }
+        logSegmentEvaluationError(segmentCondition, segment, error.getMessage());
+    }
+
     public void logPrerequisiteFlagEvaluationStart(String prerequisiteFlagKey) {
         if (!isLoggable) {
             return;
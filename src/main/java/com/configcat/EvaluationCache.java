@@ -0,0 +1,299 @@
+package com.configcat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of evaluation results keyed by setting key and the values of the User Object attributes the setting
+ * reads.
+ * <p>
+ * The attributes are found by analysing the setting once per settings map, following its segments and prerequisite
+ * flags. Users only differing in attributes the setting doesn't read share the same cached result.
+ * <p>
+ * Results are bound to the settings map they were evaluated against, so a result is never served for a different
+ * config; results of a replaced settings map are dropped lazily as they are looked up or evicted. Evaluations still
+ * running against the previous settings map neither read nor write the cache. The entries are spread over
+ * independently locked LRU stripes to keep contention low. Settings that use date-based comparators (directly or
+ * through segments and prerequisite flags) are never cached, as their results depend on the current time.
+ */
+class EvaluationCache {
+    private static final int STRIPE_COUNT = 16;
+
+    private final Stripe[] stripes = new Stripe[STRIPE_COUNT];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private volatile Snapshot snapshot = new Snapshot(null);
+    private volatile Map<String, Setting> previousSettings;
+
+    EvaluationCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("'maxSize' must be greater than 0.");
+        }
+        int stripeCapacity = Math.max(1, (maxSize + STRIPE_COUNT - 1) / STRIPE_COUNT);
+        for (int i = 0; i < STRIPE_COUNT; i++) {
+            stripes[i] = new Stripe(stripeCapacity);
+        }
+    }
+
+    /**
+     * Returns the cached result or {@code null} if there is none. Settings that can't be cached and users with an
+     * attribute provider (building the key would look up every attribute) always return {@code null} without counting a
+     * miss.
+     */
+    EvaluationResult get(Setting setting, String key, User user, Map<String, Setting> settings) {
+        if (user != null && user.hasAttributeProvider()) {
+            return null;
+        }
+        Snapshot current = snapshotOf(settings);
+        String[] attributeNames = current != null ? current.getAttributeNames(setting, key, settings) : null;
+        if (attributeNames == null) {
+            return null;
+        }
+        Key cacheKey = new Key(key, user, attributeNames);
+        Stripe stripe = stripeOf(cacheKey);
+        CachedResult cached = stripe.get(cacheKey);
+        if (cached != null && cached.settings == settings) {
+            hits.increment();
+            return cached.result;
+        }
+        if (cached != null) {
+            stripe.remove(cacheKey, cached);
+        }
+        misses.increment();
+        return null;
+    }
+
+    void put(Setting setting, String key, User user, Map<String, Setting> settings, EvaluationResult result) {
+        if (user != null && user.hasAttributeProvider()) {
+            return;
+        }
+        Snapshot current = snapshotOf(settings);
+        String[] attributeNames = current != null ? current.getAttributeNames(setting, key, settings) : null;
+        if (attributeNames == null) {
+            return;
+        }
+        Key cacheKey = new Key(key, user, attributeNames);
+        stripeOf(cacheKey).put(cacheKey, new CachedResult(settings, result));
+    }
+
+    EvaluationCacheStats getStats() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return new EvaluationCacheStats(hits.sum(), misses.sum(), size);
+    }
+
+    /**
+     * Returns the snapshot of the settings map, replacing the current one if the map is new. Returns {@code null} for
+     * the previous settings map, so evaluations racing with a config change don't switch the cache back to it.
+     */
+    private Snapshot snapshotOf(Map<String, Setting> settings) {
+        Snapshot current = snapshot;
+        if (current.settings == settings) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current.settings == settings) {
+                return current;
+            }
+            if (settings == previousSettings) {
+                return null;
+            }
+            previousSettings = current.settings;
+            current = new Snapshot(settings);
+            snapshot = current;
+            return current;
+        }
+    }
+
+    private Stripe stripeOf(Key key) {
+        int hash = key.hash;
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPE_COUNT - 1)];
+    }
+
+    /**
+     * Dependencies of the settings of one settings map.
+     */
+    private static final class Snapshot {
+        private final Map<String, Setting> settings;
+        private final Map<String, Dependencies> dependencies = new ConcurrentHashMap<>();
+
+        Snapshot(Map<String, Setting> settings) {
+            this.settings = settings;
+        }
+
+        /**
+         * Returns the user attributes the setting's evaluation reads or {@code null} if the setting can't be cached.
+         */
+        String[] getAttributeNames(Setting setting, String key, Map<String, Setting> settings) {
+            Dependencies settingDependencies = dependencies.get(key);
+            if (settingDependencies == null) {
+                settingDependencies = new Dependencies();
+                settingDependencies.collect(setting, settings);
+                dependencies.put(key, settingDependencies);
+            }
+            return settingDependencies.timeBased ? null : settingDependencies.attributeNames;
+        }
+    }
+
+    /**
+     * The user attributes read by the evaluation of a setting, including the ones read by its segments and prerequisite
+     * flags.
+     */
+    private static final class Dependencies {
+        private final Set<Setting> visited = new HashSet<>();
+        private final Set<String> attributes = new TreeSet<>();
+        private boolean timeBased;
+        private String[] attributeNames;
+
+        void collect(Setting setting, Map<String, Setting> settings) {
+            collectSetting(setting, settings);
+            attributeNames = attributes.toArray(new String[0]);
+        }
+
+        private void collectSetting(Setting setting, Map<String, Setting> settings) {
+            if (setting == null || !visited.add(setting)) {
+                return;
+            }
+            boolean hasPercentageOptions = setting.getPercentageOptions() != null && setting.getPercentageOptions().length > 0;
+            if (setting.getTargetingRules() != null) {
+                for (TargetingRule rule : setting.getTargetingRules()) {
+                    if (rule == null) {
+                        continue;
+                    }
+                    if (rule.getPercentageOptions() != null && rule.getPercentageOptions().length > 0) {
+                        hasPercentageOptions = true;
+                    }
+                    if (rule.getConditions() == null) {
+                        continue;
+                    }
+                    for (Condition condition : rule.getConditions()) {
+                        if (condition == null) {
+                            continue;
+                        }
+                        collectUserCondition(condition.getUserCondition());
+                        SegmentCondition segmentCondition = condition.getSegmentCondition();
+                        if (segmentCondition != null) {
+                            collectSegment(setting.getSegments(), segmentCondition.getSegmentIndex());
+                        }
+                        PrerequisiteFlagCondition prerequisiteFlagCondition = condition.getPrerequisiteFlagCondition();
+                        if (prerequisiteFlagCondition != null && prerequisiteFlagCondition.getPrerequisiteFlagKey() != null) {
+                            collectSetting(settings.get(prerequisiteFlagCondition.getPrerequisiteFlagKey()), settings);
+                        }
+                    }
+                }
+            }
+            if (hasPercentageOptions) {
+                attributes.add(setting.getPercentageAttribute() != null ? setting.getPercentageAttribute() : "Identifier");
+            }
+        }
+
+        private void collectSegment(Segment[] segments, int segmentIndex) {
+            if (segments == null || segmentIndex < 0 || segmentIndex >= segments.length || segments[segmentIndex] == null
+                    || segments[segmentIndex].getSegmentRules() == null) {
+                return;
+            }
+            for (UserCondition userCondition : segments[segmentIndex].getSegmentRules()) {
+                collectUserCondition(userCondition);
+            }
+        }
+
+        private void collectUserCondition(UserCondition userCondition) {
+            if (userCondition == null) {
+                return;
+            }
+            UserComparator comparator = UserComparator.fromId(userCondition.getComparator());
+            if (comparator == UserComparator.DATE_BEFORE || comparator == UserComparator.DATE_AFTER) {
+                timeBased = true;
+            }
+            if (userCondition.getComparisonAttribute() != null) {
+                attributes.add(userCondition.getComparisonAttribute());
+            }
+        }
+    }
+
+    /**
+     * A setting key with the projection of the User Object to the attributes the setting reads.
+     */
+    private static final class Key {
+        private final String settingKey;
+        private final boolean hasUser;
+        private final Object[] attributeValues;
+        private final int hash;
+
+        Key(String settingKey, User user, String[] attributeNames) {
+            this.settingKey = settingKey;
+            this.hasUser = user != null;
+            this.attributeValues = new Object[hasUser ? attributeNames.length : 0];
+            for (int i = 0; i < attributeValues.length; i++) {
+                attributeValues[i] = user.getAttribute(attributeNames[i]);
+            }
+            this.hash = 31 * (31 * settingKey.hashCode() + Boolean.hashCode(hasUser)) + Arrays.deepHashCode(attributeValues);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && hasUser == other.hasUser && settingKey.equals(other.settingKey)
+                    && Arrays.deepEquals(attributeValues, other.attributeValues);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class CachedResult {
+        private final Map<String, Setting> settings;
+        private final EvaluationResult result;
+
+        CachedResult(Map<String, Setting> settings, EvaluationResult result) {
+            this.settings = settings;
+            this.result = result;
+        }
+    }
+
+    private static final class Stripe {
+        private final LinkedHashMap<Key, CachedResult> entries;
+
+        Stripe(int capacity) {
+            this.entries = new LinkedHashMap<Key, CachedResult>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Key, CachedResult> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized CachedResult get(Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(Key key, CachedResult value) {
+            entries.put(key, value);
+        }
+
+        synchronized void remove(Key key, CachedResult value) {
+            entries.remove(key, value);
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.configcat;
+
+/**
+ * Statistics of the evaluation result cache enabled by {@link ConfigCatClient.Options#evaluationCache(int)}.
+ */
+public class EvaluationCacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final int size;
+
+    EvaluationCacheStats(long hitCount, long missCount, int size) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.size = size;
+    }
+
+    /**
+     * The number of evaluations served from the cache.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * The number of cacheable evaluations that had to be computed.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * The number of results currently held by the cache.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "EvaluationCacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", size=" + size + "}";
+    }
+}
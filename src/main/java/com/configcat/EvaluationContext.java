@@ -5,10 +5,15 @@ import java.util.Map;
 
 class EvaluationContext {
     public EvaluationContext(String key, User user, List<String> visitedKeys, Map<String, Setting> settings) {
+        this(key, user, visitedKeys, settings, null);
+    }
+
+    public EvaluationContext(String key, User user, List<String> visitedKeys, Map<String, Setting> settings, EvaluationPass pass) {
         this.key = key;
         this.user = user;
         this.visitedKeys = visitedKeys;
         this.settings = settings;
+        this.pass = pass;
     }
 
     private String key;
@@ -17,6 +22,8 @@ class EvaluationContext {
     private final Map<String, Setting> settings;
     private boolean isUserMissing = false;
     private boolean isUserAttributeMissing = false;
+    private final EvaluationPass pass;
+    private int warningCount = 0;
 
     public String getKey() {
         return key;
@@ -57,4 +64,20 @@ class EvaluationContext {
     public boolean isUserAttributeMissing() {
         return isUserAttributeMissing;
     }
+
+    public EvaluationPass getPass() {
+        return pass;
+    }
+
+    public int getWarningCount() {
+        return warningCount;
+    }
+
+    public void increaseWarningCount() {
+        warningCount++;
+    }
+
+    public void increaseWarningCount(int count) {
+        warningCount += count;
+    }
 }
@@ -0,0 +1,36 @@
+package com.configcat;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Results shared by the evaluations of several settings for the same User Object and settings map, e.g. by
+ * {@code getAllValues}. A pass is not thread-safe.
+ */
+final class EvaluationPass {
+    private final Map<Segment, Boolean> segmentResults = new IdentityHashMap<>();
+    private final Map<String, EvaluationResult> settingResults = new HashMap<>();
+
+    /**
+     * Returns the memoized result of the segment's rules or {@code null} if the segment wasn't evaluated yet.
+     */
+    Boolean getSegmentResult(Segment segment) {
+        return segmentResults.get(segment);
+    }
+
+    void putSegmentResult(Segment segment, boolean result) {
+        segmentResults.put(segment, result);
+    }
+
+    /**
+     * Returns the memoized evaluation result of the setting or {@code null} if the setting wasn't evaluated yet.
+     */
+    EvaluationResult getSettingResult(String key) {
+        return settingResults.get(key);
+    }
+
+    void putSettingResult(String key, EvaluationResult result) {
+        settingResults.put(key, result);
+    }
+}
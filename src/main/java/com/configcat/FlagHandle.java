@@ -0,0 +1,223 @@
+package com.configcat;
+
+import java.util.Map;
+
+/**
+ * A feature flag or setting of a {@link ConfigCatClient} bound to its key, type and default value.
+ * <p>
+ * The handle looks up its setting once per config and keeps it until the config changes, and its typed subclasses
+ * return primitive values. The evaluation is otherwise the same as the one of {@link ConfigCatClient#getValue}: errors
+ * are logged, the default value is returned when the evaluation fails, and the onFlagEvaluated hook is invoked (its
+ * evaluation details are only built when there are subscribers).
+ * <p>
+ * Handles are thread-safe and meant to be created once and reused.
+ */
+public abstract class FlagHandle {
+    private final ConfigCatClient client;
+    private final String key;
+    private final SettingType type;
+    private final Class<?> valueClass;
+    private volatile Resolution resolution;
+
+    FlagHandle(ConfigCatClient client, String key, SettingType type, Class<?> valueClass) {
+        if (key == null || key.isEmpty())
+            throw new IllegalArgumentException("'key' cannot be null or empty.");
+
+        this.client = client;
+        this.key = key;
+        this.type = type;
+        this.valueClass = valueClass;
+    }
+
+    /**
+     * The key of the feature flag or setting.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    SettingType getType() {
+        return type;
+    }
+
+    Class<?> getValueClass() {
+        return valueClass;
+    }
+
+    abstract Object getDefaultValue();
+
+    /**
+     * Returns the setting of the handle in the given settings map or {@code null} if it's missing. The result is kept
+     * until a different settings map is passed.
+     */
+    Setting resolve(Map<String, Setting> settings) {
+        Resolution current = resolution;
+        if (current == null || current.settings != settings) {
+            current = new Resolution(settings, settings.get(key));
+            resolution = current;
+        }
+        return current.setting;
+    }
+
+    SettingValue evaluate(User user) {
+        return client.evaluateFlag(this, user);
+    }
+
+    private static final class Resolution {
+        private final Map<String, Setting> settings;
+        private final Setting setting;
+
+        Resolution(Map<String, Setting> settings, Setting setting) {
+            this.settings = settings;
+            this.setting = setting;
+        }
+    }
+
+    /**
+     * Handle of a boolean feature flag.
+     */
+    public static final class BooleanFlag extends FlagHandle {
+        private final boolean defaultValue;
+
+        BooleanFlag(ConfigCatClient client, String key, boolean defaultValue) {
+            super(client, key, SettingType.BOOLEAN, Boolean.class);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * Evaluates the feature flag without a User Object (the default user of the client is used, if any).
+         *
+         * @return the value of the feature flag or the default value if the evaluation fails.
+         */
+        public boolean get() {
+            return get(null);
+        }
+
+        /**
+         * Evaluates the feature flag for the given user.
+         *
+         * @param user the user object.
+         * @return the value of the feature flag or the default value if the evaluation fails.
+         */
+        public boolean get(User user) {
+            SettingValue value = evaluate(user);
+            return value != null ? value.getBooleanValue() : defaultValue;
+        }
+
+        @Override
+        Object getDefaultValue() {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Handle of a whole number setting.
+     */
+    public static final class IntFlag extends FlagHandle {
+        private final int defaultValue;
+
+        IntFlag(ConfigCatClient client, String key, int defaultValue) {
+            super(client, key, SettingType.INT, Integer.class);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * Evaluates the setting without a User Object (the default user of the client is used, if any).
+         *
+         * @return the value of the setting or the default value if the evaluation fails.
+         */
+        public int get() {
+            return get(null);
+        }
+
+        /**
+         * Evaluates the setting for the given user.
+         *
+         * @param user the user object.
+         * @return the value of the setting or the default value if the evaluation fails.
+         */
+        public int get(User user) {
+            SettingValue value = evaluate(user);
+            return value != null ? value.getIntegerValue() : defaultValue;
+        }
+
+        @Override
+        Object getDefaultValue() {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Handle of a decimal number setting.
+     */
+    public static final class DoubleFlag extends FlagHandle {
+        private final double defaultValue;
+
+        DoubleFlag(ConfigCatClient client, String key, double defaultValue) {
+            super(client, key, SettingType.DOUBLE, Double.class);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * Evaluates the setting without a User Object (the default user of the client is used, if any).
+         *
+         * @return the value of the setting or the default value if the evaluation fails.
+         */
+        public double get() {
+            return get(null);
+        }
+
+        /**
+         * Evaluates the setting for the given user.
+         *
+         * @param user the user object.
+         * @return the value of the setting or the default value if the evaluation fails.
+         */
+        public double get(User user) {
+            SettingValue value = evaluate(user);
+            return value != null ? value.getDoubleValue() : defaultValue;
+        }
+
+        @Override
+        Object getDefaultValue() {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Handle of a text setting.
+     */
+    public static final class StringFlag extends FlagHandle {
+        private final String defaultValue;
+
+        StringFlag(ConfigCatClient client, String key, String defaultValue) {
+            super(client, key, SettingType.STRING, String.class);
+            this.defaultValue = defaultValue;
+        }
+
+        /**
+         * Evaluates the setting without a User Object (the default user of the client is used, if any).
+         *
+         * @return the value of the setting or the default value if the evaluation fails.
+         */
+        public String get() {
+            return get(null);
+        }
+
+        /**
+         * Evaluates the setting for the given user.
+         *
+         * @param user the user object.
+         * @return the value of the setting or the default value if the evaluation fails.
+         */
+        public String get(User user) {
+            SettingValue value = evaluate(user);
+            return value != null ? value.getStringValue() : defaultValue;
+        }
+
+        @Override
+        Object getDefaultValue() {
+            return defaultValue;
+        }
+    }
+}
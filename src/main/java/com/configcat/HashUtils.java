@@ -0,0 +1,155 @@
+package com.configcat;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * Allocation-free SHA1 and SHA256 hashing for the evaluation hot path.
+ * <p>
+ * Every thread reuses its own digests and buffers. The returned digest arrays are owned by the calling thread and stay
+ * valid only until its next call to the same method, so they have to be consumed right away.
+ */
+final class HashUtils {
+    static final int SHA1_LENGTH = 20;
+    static final int SHA256_LENGTH = 32;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private HashUtils() { /* prevent from instantiation*/ }
+
+    private static final class State {
+        final MessageDigest sha1 = DigestUtils.getSha1Digest();
+        final MessageDigest sha256 = DigestUtils.getSha256Digest();
+        final byte[] sha1Result = new byte[SHA1_LENGTH];
+        final byte[] sha256Result = new byte[SHA256_LENGTH];
+        byte[] buffer = new byte[256];
+
+        byte[] buffer(int capacity) {
+            if (buffer.length < capacity) {
+                buffer = new byte[Math.max(capacity, buffer.length * 2)];
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * SHA256 hash of {@code value + suffix}, where {@code suffixUTF8} is the UTF-8 encoded form of {@code suffix}.
+     */
+    static byte[] sha256(String value, String suffix, byte[] suffixUTF8) {
+        State state = STATE.get();
+        MessageDigest digest = state.sha256;
+        if (endsWithHighSurrogate(value)) {
+            // The surrogate might form a pair with the beginning of the suffix, encode them together.
+            update(digest, state, value + suffix);
+        } else {
+            update(digest, state, value);
+            digest.update(suffixUTF8);
+        }
+        return finish(digest, state.sha256Result);
+    }
+
+    /**
+     * SHA256 hash of the given slice followed by the suffix.
+     */
+    static byte[] sha256(byte[] bytes, int offset, int length, byte[] suffix) {
+        State state = STATE.get();
+        MessageDigest digest = state.sha256;
+        digest.update(bytes, offset, length);
+        digest.update(suffix);
+        return finish(digest, state.sha256Result);
+    }
+
+    /**
+     * SHA1 hash of {@code prefix + value}, where {@code prefixUTF8} is the UTF-8 encoded form of {@code prefix}.
+     */
+    static byte[] sha1(String prefix, byte[] prefixUTF8, String value) {
+        State state = STATE.get();
+        MessageDigest digest = state.sha1;
+        if (endsWithHighSurrogate(prefix)) {
+            // The surrogate might form a pair with the beginning of the value, encode them together.
+            update(digest, state, prefix + value);
+        } else {
+            digest.update(prefixUTF8);
+            update(digest, state, value);
+        }
+        return finish(digest, state.sha1Result);
+    }
+
+    /**
+     * Decodes a lowercase hex encoded SHA256 hash or returns {@code null} if the text can't be one.
+     */
+    static byte[] decodeSha256Hex(String hex) {
+        if (hex == null || hex.length() != 2 * SHA256_LENGTH) {
+            return null;
+        }
+        byte[] result = new byte[SHA256_LENGTH];
+        for (int i = 0; i < result.length; i++) {
+            int high = lowercaseHexDigit(hex.charAt(2 * i));
+            int low = lowercaseHexDigit(hex.charAt(2 * i + 1));
+            if (high < 0 || low < 0) {
+                return null;
+            }
+            result[i] = (byte) ((high << 4) | low);
+        }
+        return result;
+    }
+
+    private static byte[] finish(MessageDigest digest, byte[] result) {
+        try {
+            digest.digest(result, 0, result.length);
+        } catch (DigestException e) {
+            throw new IllegalStateException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Feeds the UTF-8 encoded form of the text into the digest. Produces the same bytes as
+     * {@code text.getBytes(StandardCharsets.UTF_8)}, including the '?' replacement of unpaired surrogates.
+     */
+    private static void update(MessageDigest digest, State state, String text) {
+        int length = text.length();
+        byte[] buffer = state.buffer(length * 3);
+        int position = 0;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                buffer[position++] = (byte) c;
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | (c >> 6));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    buffer[position++] = '?';
+                }
+            } else {
+                buffer[position++] = (byte) (0xE0 | (c >> 12));
+                buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        digest.update(buffer, 0, position);
+    }
+
+    private static boolean endsWithHighSurrogate(String text) {
+        return !text.isEmpty() && Character.isHighSurrogate(text.charAt(text.length() - 1));
+    }
+
+    private static int lowercaseHexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,91 @@
+package com.configcat;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Pre-decoded comparison values of the hashed STARTS WITH and ENDS WITH comparators.
+ * <p>
+ * The {@code "<length>_<hash>"} comparison values are grouped by length and their hashes are decoded to raw SHA256
+ * digests, so the user value slice of every distinct length is hashed only once and looked up directly.
+ */
+final class HashedSliceMatcher {
+    private final boolean endsWith;
+    // Distinct slice lengths in ascending order.
+    private final int[] lengths;
+    // Digests of the comparison values, one set per slice length.
+    private final Set<ByteBuffer>[] digests;
+
+    private HashedSliceMatcher(boolean endsWith, int[] lengths, Set<ByteBuffer>[] digests) {
+        this.endsWith = endsWith;
+        this.lengths = lengths;
+        this.digests = digests;
+    }
+
+    /**
+     * Decodes the comparison values or returns {@code null} if any of them is missing or malformed. Such lists are left
+     * to the linear evaluation, as it decides which error to report (if any) depending on the user value.
+     */
+    @SuppressWarnings("unchecked")
+    static HashedSliceMatcher compile(String[] comparisonValues, boolean endsWith) {
+        Map<Integer, Set<ByteBuffer>> digestsByLength = new TreeMap<>();
+        for (String comparisonValue : comparisonValues) {
+            if (comparisonValue == null) {
+                return null;
+            }
+            int indexOf = comparisonValue.indexOf("_");
+            if (indexOf <= 0) {
+                return null;
+            }
+            int length;
+            try {
+                length = Integer.parseInt(comparisonValue.substring(0, indexOf).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            String hash = comparisonValue.substring(indexOf + 1);
+            if (length < 0 || hash.isEmpty()) {
+                return null;
+            }
+            byte[] digest = HashUtils.decodeSha256Hex(hash);
+            if (digest == null) {
+                // Can never be equal to a (lowercase hex) SHA256 hash.
+                continue;
+            }
+            Set<ByteBuffer> digests = digestsByLength.get(length);
+            if (digests == null) {
+                digests = new HashSet<>();
+                digestsByLength.put(length, digests);
+            }
+            digests.add(ByteBuffer.wrap(digest));
+        }
+
+        int[] lengths = new int[digestsByLength.size()];
+        Set<ByteBuffer>[] digests = new Set[digestsByLength.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Set<ByteBuffer>> entry : digestsByLength.entrySet()) {
+            lengths[i] = entry.getKey();
+            digests[i] = entry.getValue();
+            i++;
+        }
+        return new HashedSliceMatcher(endsWith, lengths, digests);
+    }
+
+    /**
+     * Checks whether the salted hash of the user value's first (or last) bytes matches any of the comparison values.
+     * {@code saltUTF8} is the UTF-8 encoded config salt followed by the UTF-8 encoded context salt.
+     */
+    boolean matches(byte[] userValueUTF8, byte[] saltUTF8) {
+        for (int i = 0; i < lengths.length && lengths[i] <= userValueUTF8.length; i++) {
+            int length = lengths[i];
+            byte[] digest = HashUtils.sha256(userValueUTF8, endsWith ? userValueUTF8.length - length : 0, length, saltUTF8);
+            if (digests[i].contains(ByteBuffer.wrap(digest))) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,57 @@
+package com.configcat;
+
+/**
+ * Maps every hash value of the [0..99] range to the index of the percentage option it selects.
+ */
+final class PercentageOptionTable {
+    static final int SCALE = 100;
+    static final int NO_OPTION = -1;
+
+    private final PercentageOption[] percentageOptions;
+    private final int[] optionIndexes = new int[SCALE];
+
+    private PercentageOptionTable(PercentageOption[] percentageOptions) {
+        this.percentageOptions = percentageOptions;
+        for (int hashValue = 0; hashValue < SCALE; hashValue++) {
+            optionIndexes[hashValue] = NO_OPTION;
+            int bucket = 0;
+            for (int i = 0; i < percentageOptions.length; i++) {
+                if (percentageOptions[i] == null) {
+                    // Left to fail at evaluation time, just like the cumulative scan did.
+                    optionIndexes[hashValue] = i;
+                    break;
+                }
+                bucket += percentageOptions[i].getPercentage();
+                if (hashValue < bucket) {
+                    optionIndexes[hashValue] = i;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the table of the given percentage options, reusing the cached one if it was built for the same array.
+     */
+    static PercentageOptionTable of(PercentageOption[] percentageOptions, PercentageOptionTable cached) {
+        return cached != null && cached.percentageOptions == percentageOptions ? cached : new PercentageOptionTable(percentageOptions);
+    }
+
+    /**
+     * The index of the percentage option selected by the hash value or {@link #NO_OPTION} if the percentages don't
+     * cover it.
+     */
+    int indexOf(int hashValue) {
+        return optionIndexes[hashValue];
+    }
+
+    /**
+     * Computes the [0..99] hash value of the percentage evaluation, that is the first 7 hex digits of the SHA1 hash of
+     * {@code key + attributeValue} modulo 100, read directly from the digest bytes.
+     */
+    static int hashValue(String key, byte[] keyUTF8, String attributeValue) {
+        byte[] digest = HashUtils.sha1(key, keyUTF8, attributeValue);
+        int first28Bits = (digest[0] & 0xFF) << 20 | (digest[1] & 0xFF) << 12 | (digest[2] & 0xFF) << 4 | (digest[3] & 0xFF) >>> 4;
+        return first28Bits % SCALE;
+    }
+}
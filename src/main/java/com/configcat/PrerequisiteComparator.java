@@ -26,12 +26,21 @@ public enum PrerequisiteComparator {
     }
 
     public static PrerequisiteComparator fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    private static final PrerequisiteComparator[] BY_ID = indexById();
+
+    private static PrerequisiteComparator[] indexById() {
+        int maxId = -1;
+        for (PrerequisiteComparator comparator : PrerequisiteComparator.values()) {
+            maxId = Math.max(maxId, comparator.id);
+        }
+        PrerequisiteComparator[] result = new PrerequisiteComparator[maxId + 1];
         for (PrerequisiteComparator comparator : PrerequisiteComparator.values()) {
-            if (comparator.id == id) {
-                return comparator;
-            }
+            result[comparator.id] = comparator;
         }
-        return null;
+        return result;
     }
 
 }
@@ -2,6 +2,8 @@ package com.configcat;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Map;
+
 /**
  * Describes a condition that is based on a prerequisite flag.
  */
@@ -13,6 +15,7 @@ public class PrerequisiteFlagCondition {
     private int prerequisiteComparator;
     @SerializedName(value = "v")
     private SettingValue value;
+    private transient volatile Resolution resolution;
 
     /**
      * The key of the prerequisite flag that the condition is based on.
@@ -35,4 +38,43 @@ public class PrerequisiteFlagCondition {
     public SettingValue getValue() {
         return value;
     }
+
+    /**
+     * Returns the prerequisite flag and comparator of the condition resolved against the given settings map. It's
+     * normally resolved when the config is deserialized; the result is kept until a different settings map is passed.
+     */
+    Resolution resolve(Map<String, Setting> settings) {
+        Resolution current = resolution;
+        if (current == null || current.settings != settings) {
+            current = new Resolution(this, settings);
+            resolution = current;
+        }
+        return current;
+    }
+
+    static final class Resolution {
+        private final Map<String, Setting> settings;
+        private final Setting setting;
+        private final PrerequisiteComparator comparator;
+
+        Resolution(PrerequisiteFlagCondition condition, Map<String, Setting> settings) {
+            this.settings = settings;
+            this.setting = settings.get(condition.prerequisiteFlagKey);
+            this.comparator = PrerequisiteComparator.fromId(condition.prerequisiteComparator);
+        }
+
+        /**
+         * The prerequisite flag or {@code null} if it's missing from the settings map.
+         */
+        Setting getSetting() {
+            return setting;
+        }
+
+        /**
+         * The comparator of the condition or {@code null} if its id is invalid.
+         */
+        PrerequisiteComparator getComparator() {
+            return comparator;
+        }
+    }
 }
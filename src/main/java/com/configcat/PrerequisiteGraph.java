@@ -0,0 +1,62 @@
+package com.configcat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Dependency graph of the settings through their prerequisite flag conditions.
+ * <p>
+ * The graph is walked depth first (in topological order) once per config and every setting that can't reach a
+ * dependency cycle is marked as acyclic, so its evaluation doesn't have to track the visited flags. Settings that can
+ * reach a cycle keep the evaluation time check, which reports the exact dependency path.
+ */
+final class PrerequisiteGraph {
+    private enum State {
+        VISITING,
+        ACYCLIC,
+        CYCLIC
+    }
+
+    private PrerequisiteGraph() { /* prevent from instantiation*/ }
+
+    static void analyze(Map<String, Setting> settings) {
+        Map<String, State> states = new HashMap<>();
+        for (String key : settings.keySet()) {
+            visit(key, settings, states);
+        }
+    }
+
+    private static boolean visit(String key, Map<String, Setting> settings, Map<String, State> states) {
+        State state = states.get(key);
+        if (state != null) {
+            // A flag which is still being visited is reached through a cycle.
+            return state == State.ACYCLIC;
+        }
+        Setting setting = settings.get(key);
+        if (setting == null) {
+            // Missing prerequisite flags are reported by the evaluation.
+            return true;
+        }
+        states.put(key, State.VISITING);
+        boolean acyclic = true;
+        if (setting.getTargetingRules() != null) {
+            for (TargetingRule targetingRule : setting.getTargetingRules()) {
+                if (targetingRule == null || targetingRule.getConditions() == null) {
+                    continue;
+                }
+                for (Condition condition : targetingRule.getConditions()) {
+                    PrerequisiteFlagCondition prerequisiteFlagCondition = condition != null ? condition.getPrerequisiteFlagCondition() : null;
+                    if (prerequisiteFlagCondition != null && prerequisiteFlagCondition.getPrerequisiteFlagKey() != null
+                            && !visit(prerequisiteFlagCondition.getPrerequisiteFlagKey(), settings, states)) {
+                        acyclic = false;
+                    }
+                }
+            }
+        }
+        states.put(key, acyclic ? State.ACYCLIC : State.CYCLIC);
+        if (acyclic) {
+            setting.setAcyclicIn(settings);
+        }
+        return acyclic;
+    }
+}
@@ -3,7 +3,6 @@ package com.configcat;
 import de.skuzzle.semantic.Version;
 import org.jetbrains.annotations.NotNull;
 
-import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
@@ -21,6 +20,14 @@ class RolloutEvaluator {
     }
 
     public EvaluationResult evaluate(Setting setting, String key, User user, Map<String, Setting> settings, EvaluateLogger evaluateLogger) {
+        return evaluate(setting, key, user, settings, evaluateLogger, null);
+    }
+
+    /**
+     * Evaluates the setting sharing the intermediate results with the other evaluations of the pass. The pass must only
+     * be used for evaluations with the same User Object and settings map.
+     */
+    public EvaluationResult evaluate(Setting setting, String key, User user, Map<String, Setting> settings, EvaluateLogger evaluateLogger, EvaluationPass pass) {
         try {
             evaluateLogger.logEvaluation(key);
             if (user != null) {
@@ -28,11 +35,11 @@ class RolloutEvaluator {
             }
             evaluateLogger.increaseIndentLevel();
 
-            EvaluationContext context = new EvaluationContext(key, user, null, settings);
+            EvaluationContext context = new EvaluationContext(key, user, null, settings, pass);
 
-            EvaluationResult evaluationResult = evaluateSetting(setting, evaluateLogger, context);
+            EvaluationResult evaluationResult = evaluateSettingInPass(setting, evaluateLogger, context);
 
-            evaluateLogger.logReturnValue(evaluationResult.value.toString());
+            evaluateLogger.logReturnValue(evaluationResult.value);
             evaluateLogger.decreaseIndentLevel();
             return evaluationResult;
         } finally {
@@ -42,6 +49,31 @@ class RolloutEvaluator {
         }
     }
 
+    /**
+     * Evaluates the setting or reuses its result from the pass. Results are only shared for settings that can't reach a
+     * prerequisite flag dependency cycle and whose evaluation logged nothing, so that the logs stay the same.
+     */
+    private EvaluationResult evaluateSettingInPass(Setting setting, EvaluateLogger evaluateLogger, EvaluationContext context) {
+        EvaluationPass pass = evaluateLogger.isLoggable() || !setting.isAcyclicIn(context.getSettings()) ? null : context.getPass();
+        if (pass == null) {
+            return evaluateSetting(setting, evaluateLogger, context);
+        }
+        EvaluationResult evaluationResult = pass.getSettingResult(context.getKey());
+        if (evaluationResult == null) {
+            int warningCount = context.getWarningCount();
+            evaluationResult = evaluateSetting(setting, evaluateLogger, context);
+            if (context.getWarningCount() == warningCount) {
+                pass.putSettingResult(context.getKey(), evaluationResult);
+            }
+        }
+        return evaluationResult;
+    }
+
+    private void logWarning(EvaluationContext context, int eventId, FormattableLogMessage message) {
+        this.logger.warn(eventId, message);
+        context.increaseWarningCount();
+    }
+
     @NotNull
     private EvaluationResult evaluateSetting(Setting setting, EvaluateLogger evaluateLogger, EvaluationContext context) {
         EvaluationResult evaluationResult = null;
@@ -49,7 +81,7 @@ class RolloutEvaluator {
             evaluationResult = evaluateTargetingRules(setting, context, evaluateLogger);
         }
         if (evaluationResult == null && setting.getPercentageOptions() != null && setting.getPercentageOptions().length > 0) {
-            evaluationResult = evaluatePercentageOptions(setting.getPercentageOptions(), setting.getPercentageAttribute(), context, null, evaluateLogger);
+            evaluationResult = evaluatePercentageOptions(setting.getPercentageOptions(), setting.getPercentageOptionTable(), setting, context, null, evaluateLogger);
         }
         if (evaluationResult == null) {
             evaluationResult = new EvaluationResult(setting.getSettingsValue(), setting.getVariationId(), null, null);
@@ -58,104 +90,51 @@ class RolloutEvaluator {
     }
 
     private boolean evaluateUserCondition(UserCondition userCondition, EvaluationContext context, String configSalt, String contextSalt, EvaluateLogger evaluateLogger) throws RolloutEvaluatorException {
-        evaluateLogger.append(EvaluateLogger.formatUserCondition(userCondition));
+        evaluateLogger.logUserCondition(userCondition);
 
         if (context.getUser() == null) {
             if (!context.isUserMissing()) {
                 context.setUserMissing(true);
-                this.logger.warn(3001, ConfigCatLogMessages.getUserObjectMissing(context.getKey()));
+                logWarning(context, 3001, ConfigCatLogMessages.getUserObjectMissing(context.getKey()));
             }
-            throw new RolloutEvaluatorException(USER_OBJECT_IS_MISSING);
+            throw RolloutEvaluatorException.USER_OBJECT_IS_MISSING_EXCEPTION;
         }
 
-        String comparisonAttribute = userCondition.getComparisonAttribute();
-        UserComparator userComparator = UserComparator.fromId(userCondition.getComparator());
-        Object userAttributeValue = context.getUser().getAttribute(comparisonAttribute);
+        CompiledUserCondition compiledCondition = userCondition.getCompiledCondition(configSalt, contextSalt);
+        String comparisonAttribute = compiledCondition.getComparisonAttribute();
+        Object userAttributeValue = compiledCondition.getComparisonAttributeValue(context.getUser());
 
         if (userAttributeValue == null || (userAttributeValue instanceof String && ((String) userAttributeValue).isEmpty())) {
-            logger.warn(3003, ConfigCatLogMessages.getUserAttributeMissing(context.getKey(), userCondition, comparisonAttribute));
-            throw new RolloutEvaluatorException(CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + CANNOT_EVALUATE_THE_USER_MISSING);
+            logWarning(context, 3003, ConfigCatLogMessages.getUserAttributeMissing(context.getKey(), userCondition, comparisonAttribute));
+            throw RolloutEvaluatorException.attributeMissing(comparisonAttribute);
         }
 
-        if (userComparator == null) {
+        if (compiledCondition.getKind() == null) {
             throw new IllegalArgumentException(COMPARISON_OPERATOR_IS_INVALID);
         }
-        switch (userComparator) {
-            case CONTAINS_ANY_OF:
-            case NOT_CONTAINS_ANY_OF:
-                boolean negateContainsAnyOf = UserComparator.NOT_CONTAINS_ANY_OF.equals(userComparator);
-                String userAttributeForContains = getUserAttributeAsString(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateContainsAnyOf(userCondition, userAttributeForContains, negateContainsAnyOf);
+        switch (compiledCondition.getKind()) {
             case SEMVER_IS_ONE_OF:
-            case SEMVER_IS_NOT_ONE_OF:
-                boolean negateSemverIsOneOf = UserComparator.SEMVER_IS_NOT_ONE_OF.equals(userComparator);
-                Version userAttributeValueForSemverIsOneOf = getUserAttributeAsVersion(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateSemverIsOneOf(userCondition, userAttributeValueForSemverIsOneOf, negateSemverIsOneOf);
-            case SEMVER_LESS:
-            case SEMVER_LESS_EQUALS:
-            case SEMVER_GREATER:
-            case SEMVER_GREATER_EQUALS:
-                Version userAttributeValueForSemverOperators = getUserAttributeAsVersion(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateSemver(userCondition, userComparator, userAttributeValueForSemverOperators);
-            case NUMBER_EQUALS:
-            case NUMBER_NOT_EQUALS:
-            case NUMBER_LESS:
-            case NUMBER_LESS_EQUALS:
-            case NUMBER_GREATER:
-            case NUMBER_GREATER_EQUALS:
-                Double userAttributeAsDouble = getUserAttributeAsDouble(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateNumbers(userCondition, userComparator, userAttributeAsDouble);
-            case IS_ONE_OF:
-            case IS_NOT_ONE_OF:
-            case SENSITIVE_IS_ONE_OF:
-            case SENSITIVE_IS_NOT_ONE_OF:
-                boolean negateIsOneOf = UserComparator.SENSITIVE_IS_NOT_ONE_OF.equals(userComparator) || UserComparator.IS_NOT_ONE_OF.equals(userComparator);
-                boolean sensitiveIsOneOf = UserComparator.SENSITIVE_IS_ONE_OF.equals(userComparator) || UserComparator.SENSITIVE_IS_NOT_ONE_OF.equals(userComparator);
-                String userAttributeForIsOneOf = getUserAttributeAsString(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateIsOneOf(userCondition, configSalt, contextSalt, userAttributeForIsOneOf, negateIsOneOf, sensitiveIsOneOf);
-            case DATE_BEFORE:
-            case DATE_AFTER:
-                double userAttributeForDate = getUserAttributeForDate(userCondition, context, comparisonAttribute, userAttributeValue);
-                return evaluateDate(userCondition, userComparator, userAttributeForDate);
-            case TEXT_EQUALS:
-            case TEXT_NOT_EQUALS:
-            case HASHED_EQUALS:
-            case HASHED_NOT_EQUALS:
-                boolean negateEquals = UserComparator.HASHED_NOT_EQUALS.equals(userComparator) || UserComparator.TEXT_NOT_EQUALS.equals(userComparator);
-                boolean hashedEquals = UserComparator.HASHED_EQUALS.equals(userComparator) || UserComparator.HASHED_NOT_EQUALS.equals(userComparator);
-                String userAttributeForEquals = getUserAttributeAsString(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateEquals(userCondition, configSalt, contextSalt, userAttributeForEquals, negateEquals, hashedEquals);
-            case HASHED_STARTS_WITH:
-            case HASHED_ENDS_WITH:
-            case HASHED_NOT_STARTS_WITH:
-            case HASHED_NOT_ENDS_WITH:
-                String userAttributeForHashedStartEnd = getUserAttributeAsString(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateHashedStartOrEndsWith(userCondition, ensureConfigSalt(configSalt), contextSalt, userComparator, userAttributeForHashedStartEnd);
-            case TEXT_STARTS_WITH:
-            case TEXT_NOT_STARTS_WITH:
-                boolean negateTextStartWith = UserComparator.TEXT_NOT_STARTS_WITH.equals(userComparator);
-                String userAttributeForTextStart = getUserAttributeAsString(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateTextStartsWith(userCondition, userAttributeForTextStart, negateTextStartWith);
-            case TEXT_ENDS_WITH:
-            case TEXT_NOT_ENDS_WITH:
-                boolean negateTextEndsWith = UserComparator.TEXT_NOT_ENDS_WITH.equals(userComparator);
-                String userAttributeForTextEnd = getUserAttributeAsString(context.getKey(), userCondition, comparisonAttribute, userAttributeValue);
-                return evaluateTextEndsWith(userCondition, userAttributeForTextEnd, negateTextEndsWith);
-            case TEXT_ARRAY_CONTAINS:
-            case TEXT_ARRAY_NOT_CONTAINS:
-            case HASHED_ARRAY_CONTAINS:
-            case HASHED_ARRAY_NOT_CONTAINS:
-                boolean negateArrayContains = UserComparator.HASHED_ARRAY_NOT_CONTAINS.equals(userComparator) || UserComparator.TEXT_ARRAY_NOT_CONTAINS.equals(userComparator);
-                boolean hashedArrayContains = UserComparator.HASHED_ARRAY_CONTAINS.equals(userComparator) || UserComparator.HASHED_ARRAY_NOT_CONTAINS.equals(userComparator);
-                String[] userAttributeAsStringArray = getUserAttributeAsStringArray(userCondition, context, comparisonAttribute, userAttributeValue);
-                return evaluateArrayContains(userCondition, configSalt, contextSalt, userAttributeAsStringArray, negateArrayContains, hashedArrayContains);
+            case SEMVER_COMPARE:
+                Version userAttributeAsVersion = getUserAttributeAsVersion(userCondition, context, comparisonAttribute, compiledCondition.getDerivedValueKey(), userAttributeValue);
+                return compiledCondition.evaluateSemver(userAttributeAsVersion);
+            case NUMBER_COMPARE:
+                Double userAttributeAsDouble = getUserAttributeAsDouble(userCondition, context, comparisonAttribute, compiledCondition.getDerivedValueKey(), userAttributeValue);
+                return compiledCondition.evaluateNumber(userAttributeAsDouble);
+            case DATE_COMPARE:
+                double userAttributeForDate = getUserAttributeForDate(userCondition, context, comparisonAttribute, compiledCondition.getDerivedValueKey(), userAttributeValue);
+                return compiledCondition.evaluateDate(userAttributeForDate);
+            case ARRAY_CONTAINS:
+                String[] userAttributeAsStringArray = getUserAttributeAsStringArray(userCondition, context, comparisonAttribute, compiledCondition.getDerivedValueKey(), userAttributeValue);
+                return compiledCondition.evaluateArrayContains(userAttributeAsStringArray);
             default:
-                throw new IllegalArgumentException(COMPARISON_OPERATOR_IS_INVALID);
+                String userAttributeAsString = getUserAttributeAsString(userCondition, context, comparisonAttribute, userAttributeValue);
+                // Salted hashes of text attributes can be reused, converted values are hashed on every call.
+                return compiledCondition.evaluateText(userAttributeAsString, userAttributeValue instanceof String ? context.getUser().getDerivedValues() : null);
         }
     }
 
     @SuppressWarnings("unchecked")
-    private String[] getUserAttributeAsStringArray(UserCondition userCondition, EvaluationContext context, String comparisonAttribute, Object userAttributeValue) {
+    private String[] getUserAttributeAsStringArray(UserCondition userCondition, EvaluationContext context, String comparisonAttribute, UserDerivedValues.Key derivedValueKey, Object userAttributeValue) {
         String[] result = null;
         try {
             if (userAttributeValue instanceof String[]) {
@@ -166,7 +145,7 @@ class RolloutEvaluator {
                 list.toArray(userValueArray);
                 result = userValueArray;
             } else if (userAttributeValue instanceof String) {
-                result = Utils.gson.fromJson((String) userAttributeValue, String[].class);
+                result = context.getUser().getDerivedValues().getStringArray(derivedValueKey, (String) userAttributeValue);
             }
             if (result != null && Arrays.stream(result).noneMatch(Objects::isNull)) {
                 return result;
@@ -175,11 +154,11 @@ class RolloutEvaluator {
             // String array parse failed continue with the RolloutEvaluatorException
         }
         String reason = "'" + userAttributeValue + "' is not a valid JSON string array";
-        this.logger.warn(3004, ConfigCatLogMessages.getUserAttributeInvalid(context.getKey(), userCondition, reason, comparisonAttribute));
-        throw new RolloutEvaluatorException(CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + CANNOT_EVALUATE_THE_USER_INVALID + reason + ")");
+        logWarning(context, 3004, ConfigCatLogMessages.getUserAttributeInvalid(context.getKey(), userCondition, reason, comparisonAttribute));
+        throw RolloutEvaluatorException.attributeInvalid(comparisonAttribute, reason);
     }
 
-    private double getUserAttributeForDate(UserCondition userCondition, EvaluationContext context, String comparisonAttribute, Object userAttributeValue) {
+    private double getUserAttributeForDate(UserCondition userCondition, EvaluationContext context, String comparisonAttribute, UserDerivedValues.Key derivedValueKey, Object userAttributeValue) {
         try {
             if (userAttributeValue instanceof Date) {
                 return DateTimeUtils.getUnixSeconds((Date) userAttributeValue);
@@ -187,246 +166,78 @@ class RolloutEvaluator {
             if (userAttributeValue instanceof Instant) {
                 return DateTimeUtils.getUnixSeconds((Instant) userAttributeValue);
             }
+            if (userAttributeValue instanceof String) {
+                Double userAttributeAsDouble = context.getUser().getDerivedValues().getNumber(derivedValueKey, (String) userAttributeValue);
+                if (userAttributeAsDouble == null) {
+                    throw new NumberFormatException();
+                }
+                return userAttributeAsDouble;
+            }
             return UserAttributeConverter.userAttributeToDouble(userAttributeValue);
         } catch (Exception e) {
             String reason = "'" + userAttributeValue + "' is not a valid Unix timestamp (number of seconds elapsed since Unix epoch)";
-            this.logger.warn(3004, ConfigCatLogMessages.getUserAttributeInvalid(context.getKey(), userCondition, reason, comparisonAttribute));
-            throw new RolloutEvaluatorException(CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + CANNOT_EVALUATE_THE_USER_INVALID + reason + ")");
+            logWarning(context, 3004, ConfigCatLogMessages.getUserAttributeInvalid(context.getKey(), userCondition, reason, comparisonAttribute));
+            throw RolloutEvaluatorException.attributeInvalid(comparisonAttribute, reason);
         }
     }
 
-    private String getUserAttributeAsString(String key, UserCondition userCondition, String userAttributeName, Object userAttributeValue) {
+    private String getUserAttributeAsString(UserCondition userCondition, EvaluationContext context, String userAttributeName, Object userAttributeValue) {
         if (userAttributeValue instanceof String) {
             return (String) userAttributeValue;
         }
 
         String convertedUserAttribute = UserAttributeConverter.userAttributeToString(userAttributeValue);
-        this.logger.warn(3005, ConfigCatLogMessages.getUserObjectAttributeIsAutoConverted(key, userCondition, userAttributeName, convertedUserAttribute));
+        logWarning(context, 3005, ConfigCatLogMessages.getUserObjectAttributeIsAutoConverted(context.getKey(), userCondition, userAttributeName, convertedUserAttribute));
         return convertedUserAttribute;
     }
 
-    private Version getUserAttributeAsVersion(String key, UserCondition userCondition, String comparisonAttribute, Object userValue) {
+    private Version getUserAttributeAsVersion(UserCondition userCondition, EvaluationContext context, String comparisonAttribute, UserDerivedValues.Key derivedValueKey, Object userValue) {
         if (userValue instanceof String) {
-            try {
-                return Version.parseVersion(((String) userValue).trim(), true);
-            } catch (Version.VersionFormatException e) {
-                // Version parse failed continue with the RolloutEvaluatorException
+            Version version = context.getUser().getDerivedValues().getVersion(derivedValueKey, (String) userValue);
+            if (version != null) {
+                return version;
             }
         }
         String reason = "'" + userValue + "' is not a valid semantic version";
-        this.logger.warn(3004, ConfigCatLogMessages.getUserAttributeInvalid(key, userCondition, reason, comparisonAttribute));
-        throw new RolloutEvaluatorException(CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + CANNOT_EVALUATE_THE_USER_INVALID + reason + ")");
+        logWarning(context, 3004, ConfigCatLogMessages.getUserAttributeInvalid(context.getKey(), userCondition, reason, comparisonAttribute));
+        throw RolloutEvaluatorException.attributeInvalid(comparisonAttribute, reason);
     }
 
-    private Double getUserAttributeAsDouble(String key, UserCondition userCondition, String comparisonAttribute, Object userAttributeValue) {
+    private Double getUserAttributeAsDouble(UserCondition userCondition, EvaluationContext context, String comparisonAttribute, UserDerivedValues.Key derivedValueKey, Object userAttributeValue) {
         try {
             if (userAttributeValue instanceof Double) {
                 return (Double) userAttributeValue;
             }
+            if (userAttributeValue instanceof String) {
+                Double userAttributeAsDouble = context.getUser().getDerivedValues().getNumber(derivedValueKey, (String) userAttributeValue);
+                if (userAttributeAsDouble == null) {
+                    throw new NumberFormatException();
+                }
+                return userAttributeAsDouble;
+            }
             return UserAttributeConverter.userAttributeToDouble(userAttributeValue);
         } catch (NumberFormatException e) {
             //If cannot convert to double, continue with the error
             String reason = "'" + userAttributeValue + "' is not a valid decimal number";
-            this.logger.warn(3004, ConfigCatLogMessages.getUserAttributeInvalid(key, userCondition, reason, comparisonAttribute));
-            throw new RolloutEvaluatorException(CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + CANNOT_EVALUATE_THE_USER_INVALID + reason + ")");
+            logWarning(context, 3004, ConfigCatLogMessages.getUserAttributeInvalid(context.getKey(), userCondition, reason, comparisonAttribute));
+            throw RolloutEvaluatorException.attributeInvalid(comparisonAttribute, reason);
         }
     }
 
-    private boolean evaluateHashedStartOrEndsWith(UserCondition userCondition, String configSalt, String contextSalt, UserComparator userComparator, String userAttributeValue) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        byte[] userAttributeValueUTF8 = userAttributeValue.getBytes(StandardCharsets.UTF_8);
-        boolean foundEqual = false;
-        for (String comparisonValueHashedStartsEnds : comparisonValues) {
-            int indexOf = ensureComparisonValue(comparisonValueHashedStartsEnds).indexOf("_");
-            if (indexOf <= 0) {
-                throw new IllegalArgumentException(COMPARISON_VALUE_IS_MISSING_OR_INVALID);
-            }
-            String comparedTextLength = comparisonValueHashedStartsEnds.substring(0, indexOf).trim();
-            int comparedTextLengthInt;
-            try {
-                comparedTextLengthInt = Integer.parseInt(comparedTextLength);
-            } catch (NumberFormatException e) {
-                throw new IllegalArgumentException(COMPARISON_VALUE_IS_MISSING_OR_INVALID);
-            }
-
-            if (userAttributeValueUTF8.length < comparedTextLengthInt) {
-                continue;
-            }
-            String comparisonHashValue = comparisonValueHashedStartsEnds.substring(indexOf + 1);
-            if (comparisonHashValue.isEmpty()) {
-                throw new IllegalArgumentException(COMPARISON_VALUE_IS_MISSING_OR_INVALID);
-            }
-            byte[] userValueSubStringByteArray;
-            if (UserComparator.HASHED_STARTS_WITH.equals(userComparator) || UserComparator.HASHED_NOT_STARTS_WITH.equals(userComparator)) {
-                userValueSubStringByteArray = Arrays.copyOfRange(userAttributeValueUTF8, 0, comparedTextLengthInt);
-            } else { //HASHED_ENDS_WITH
-                userValueSubStringByteArray = Arrays.copyOfRange(userAttributeValueUTF8, userAttributeValueUTF8.length - comparedTextLengthInt, userAttributeValueUTF8.length);
-            }
-            String hashUserValueSub = getSaltedUserValueSlice(userValueSubStringByteArray, configSalt, contextSalt);
-
-            if (hashUserValueSub.equals(comparisonHashValue)) {
-                foundEqual = true;
-                break;
-            }
-        }
-        if (UserComparator.HASHED_NOT_STARTS_WITH.equals(userComparator) || UserComparator.HASHED_NOT_ENDS_WITH.equals(userComparator)) {
-            return !foundEqual;
-        }
-        return foundEqual;
-    }
-
-    private boolean evaluateTextStartsWith(UserCondition userCondition, String userAttributeValue, boolean negateTextStartWith) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        for (String textValue : comparisonValues) {
-            if (userAttributeValue.startsWith(ensureComparisonValue(textValue))) {
-                return !negateTextStartWith;
-            }
-        }
-        return negateTextStartWith;
-    }
-
-    private boolean evaluateTextEndsWith(UserCondition userCondition, String userAttributeValue, boolean negateTextEndsWith) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        for (String textValue : comparisonValues) {
-            if (userAttributeValue.endsWith(ensureComparisonValue(textValue))) {
-                return !negateTextEndsWith;
-            }
-        }
-        return negateTextEndsWith;
-    }
-
-    private boolean evaluateArrayContains(UserCondition userCondition, String configSalt, String contextSalt, String[] userContainsValues, boolean negateArrayContains, boolean hashedArrayContains) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        if (userContainsValues.length == 0) {
-            return false;
-        }
-        for (String userContainsValue : userContainsValues) {
-            String userContainsValueConverted = hashedArrayContains ? getSaltedUserValue(userContainsValue, ensureConfigSalt(configSalt), contextSalt) : userContainsValue;
-            for (String inValuesElement : comparisonValues) {
-                if (ensureComparisonValue(inValuesElement).equals(userContainsValueConverted)) {
-                    return !negateArrayContains;
-                }
-            }
-        }
-        return negateArrayContains;
-    }
-
-    private boolean evaluateEquals(UserCondition userCondition, String configSalt, String contextSalt, String userValue, boolean negateEquals, boolean hashedEquals) {
-        String comparisonValue = ensureComparisonValue(userCondition.getStringValue());
-
-        String valueEquals = hashedEquals ? getSaltedUserValue(userValue, ensureConfigSalt(configSalt), contextSalt) : userValue;
-        return negateEquals != valueEquals.equals(comparisonValue);
-    }
-
-    private boolean evaluateDate(UserCondition userCondition, UserComparator userComparator, double userDoubleValue) {
-        double comparisonDoubleValue = ensureComparisonValue(userCondition.getDoubleValue());
-        return (UserComparator.DATE_BEFORE.equals(userComparator) && userDoubleValue < comparisonDoubleValue) ||
-                (UserComparator.DATE_AFTER.equals(userComparator) && userDoubleValue > comparisonDoubleValue);
-    }
-
-    private boolean evaluateIsOneOf(UserCondition userCondition, String configSalt, String contextSalt, String userValue, boolean negateIsOneOf, boolean sensitiveIsOneOf) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        String userIsOneOfValue = sensitiveIsOneOf ? getSaltedUserValue(userValue, ensureConfigSalt(configSalt), contextSalt) : userValue;
-
-        for (String inValuesElement : comparisonValues) {
-            if (ensureComparisonValue(inValuesElement).equals(userIsOneOfValue)) {
-                return !negateIsOneOf;
-            }
-        }
-        return negateIsOneOf;
-    }
-
-    private boolean evaluateNumbers(UserCondition userCondition, UserComparator userComparator, Double userValue) {
-        Double comparisonDoubleValue = ensureComparisonValue(userCondition.getDoubleValue());
-        return (UserComparator.NUMBER_EQUALS.equals(userComparator) && userValue.equals(comparisonDoubleValue)) ||
-                (UserComparator.NUMBER_NOT_EQUALS.equals(userComparator) && !userValue.equals(comparisonDoubleValue)) ||
-                (UserComparator.NUMBER_LESS.equals(userComparator) && userValue < comparisonDoubleValue) ||
-                (UserComparator.NUMBER_LESS_EQUALS.equals(userComparator) && userValue <= comparisonDoubleValue) ||
-                (UserComparator.NUMBER_GREATER.equals(userComparator) && userValue > comparisonDoubleValue) ||
-                (UserComparator.NUMBER_GREATER_EQUALS.equals(userComparator) && userValue >= comparisonDoubleValue);
-    }
-
-    private boolean evaluateSemver(UserCondition userCondition, UserComparator userComparator, Version userValue) {
-        String comparisonValue = ensureComparisonValue(userCondition.getStringValue());
-        Version matchValue;
-        try {
-            matchValue = Version.parseVersion(comparisonValue.trim(), true);
-        } catch (Version.VersionFormatException exception) {
-            return false;
-        }
-        return (UserComparator.SEMVER_LESS.equals(userComparator) && userValue.isLowerThan(matchValue)) ||
-                (UserComparator.SEMVER_LESS_EQUALS.equals(userComparator) && userValue.compareTo(matchValue) <= 0) ||
-                (UserComparator.SEMVER_GREATER.equals(userComparator) && userValue.isGreaterThan(matchValue)) ||
-                (UserComparator.SEMVER_GREATER_EQUALS.equals(userComparator) && userValue.compareTo(matchValue) >= 0);
-    }
-
-    private boolean evaluateSemverIsOneOf(UserCondition userCondition, Version userVersion, boolean negate) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        boolean matched = false;
-        for (String semVer : comparisonValues) {
-            // Previous versions of the evaluation algorithm ignore empty comparison values.
-            // We keep this behavior for backward compatibility.
-            if (ensureComparisonValue(semVer).isEmpty()) {
-                continue;
-            }
-            try {
-                matched = userVersion.compareTo(Version.parseVersion(semVer.trim(), true)) == 0 || matched;
-            } catch (Version.VersionFormatException exception) {
-                // Previous versions of the evaluation algorithm ignored invalid comparison values.
-                // We keep this behavior for backward compatibility.
-                return false;
-            }
-        }
-
-        return negate != matched;
-    }
-
-    private boolean evaluateContainsAnyOf(UserCondition userCondition, String userValue, boolean negate) {
-        String[] comparisonValues = ensureComparisonValue(userCondition.getStringArrayValue());
-
-        for (String containsValue : comparisonValues) {
-            if (userValue.contains(ensureComparisonValue(containsValue))) {
-                return !negate;
-            }
-        }
-        return negate;
-    }
-
-    private static String getSaltedUserValue(String userValue, String configJsonSalt, String contextSalt) {
-        return Utils.sha256(userValue + configJsonSalt + contextSalt);
-    }
-
-    private static String getSaltedUserValueSlice(byte[] userValueSliceUTF8, String configJsonSalt, String contextSalt) {
-        byte[] configSaltByteArray = configJsonSalt.getBytes(StandardCharsets.UTF_8);
-        byte[] contextSaltByteArray = contextSalt.getBytes(StandardCharsets.UTF_8);
-        byte[] concatByteArrays = new byte[userValueSliceUTF8.length + configSaltByteArray.length + contextSaltByteArray.length];
-
-        System.arraycopy(userValueSliceUTF8, 0, concatByteArrays, 0, userValueSliceUTF8.length);
-        System.arraycopy(configSaltByteArray, 0, concatByteArrays, userValueSliceUTF8.length, configSaltByteArray.length);
-        System.arraycopy(contextSaltByteArray, 0, concatByteArrays, userValueSliceUTF8.length + configSaltByteArray.length, contextSaltByteArray.length);
-        return Utils.sha256(concatByteArrays);
-    }
-
     private boolean evaluateSegmentCondition(SegmentCondition segmentCondition, EvaluationContext context, String configSalt, Segment[] segments, EvaluateLogger evaluateLogger) {
         int segmentIndex = segmentCondition.getSegmentIndex();
         Segment segment = null;
         if (segmentIndex < segments.length) {
             segment = segments[segmentIndex];
         }
-        evaluateLogger.append(EvaluateLogger.formatSegmentFlagCondition(segmentCondition, segment));
+        evaluateLogger.logSegmentFlagCondition(segmentCondition, segment);
 
         if (context.getUser() == null) {
             if (!context.isUserMissing()) {
                 context.setUserMissing(true);
-                logger.warn(3001, ConfigCatLogMessages.getUserObjectMissing(context.getKey()));
+                logWarning(context, 3001, ConfigCatLogMessages.getUserObjectMissing(context.getKey()));
             }
-            throw new RolloutEvaluatorException(USER_OBJECT_IS_MISSING);
+            throw RolloutEvaluatorException.USER_OBJECT_IS_MISSING_EXCEPTION;
         }
 
         if (segment == null) {
@@ -439,9 +250,22 @@ class RolloutEvaluator {
         evaluateLogger.logSegmentEvaluationStart(segmentName);
         boolean result;
         try {
-            boolean segmentRulesResult = evaluateConditions(segment.getSegmentRules(), null, context, configSalt, segmentName, segments, evaluateLogger);
+            // Segment results are only shared when no evaluation log is built and no warning (which mentions the
+            // evaluated flag) was logged, so that every flag still produces the same logs.
+            EvaluationPass pass = evaluateLogger.isLoggable() ? null : context.getPass();
+            Boolean memoizedResult = pass != null ? pass.getSegmentResult(segment) : null;
+            boolean segmentRulesResult;
+            if (memoizedResult != null) {
+                segmentRulesResult = memoizedResult;
+            } else {
+                int warningCount = context.getWarningCount();
+                segmentRulesResult = evaluateConditions(segment.getSegmentRules(), null, context, configSalt, segmentName, segments, evaluateLogger);
+                if (pass != null && context.getWarningCount() == warningCount) {
+                    pass.putSegmentResult(segment, segmentRulesResult);
+                }
+            }
 
-            SegmentComparator segmentComparator = SegmentComparator.fromId(segmentCondition.getSegmentComparator());
+            SegmentComparator segmentComparator = segmentCondition.getResolvedComparator();
             if (segmentComparator == null) {
                 throw new IllegalArgumentException("Segment comparison operator is invalid.");
             }
@@ -458,7 +282,7 @@ class RolloutEvaluator {
             evaluateLogger.logSegmentEvaluationResult(segmentCondition, segment, result, segmentRulesResult);
 
         } catch (RolloutEvaluatorException evaluatorException) {
-            evaluateLogger.logSegmentEvaluationError(segmentCondition, segment, evaluatorException.getMessage());
+            evaluateLogger.logSegmentEvaluationError(segmentCondition, segment, evaluatorException);
             throw evaluatorException;
         }
 
@@ -466,10 +290,11 @@ class RolloutEvaluator {
     }
 
     private boolean evaluatePrerequisiteFlagCondition(PrerequisiteFlagCondition prerequisiteFlagCondition, EvaluationContext context, EvaluateLogger evaluateLogger) {
-        evaluateLogger.append(EvaluateLogger.formatPrerequisiteFlagCondition(prerequisiteFlagCondition));
+        evaluateLogger.logPrerequisiteFlagCondition(prerequisiteFlagCondition);
 
         String prerequisiteFlagKey = prerequisiteFlagCondition.getPrerequisiteFlagKey();
-        Setting prerequisiteFlagSetting = context.getSettings().get(prerequisiteFlagKey);
+        PrerequisiteFlagCondition.Resolution resolution = prerequisiteFlagCondition.resolve(context.getSettings());
+        Setting prerequisiteFlagSetting = resolution.getSetting();
         if (prerequisiteFlagKey == null || prerequisiteFlagKey.isEmpty() || prerequisiteFlagSetting == null) {
             throw new IllegalArgumentException("Prerequisite flag key is missing or invalid.");
         }
@@ -482,30 +307,37 @@ class RolloutEvaluator {
             throw new IllegalArgumentException("Type mismatch between comparison value '" + prerequisiteFlagCondition.getValue() + "' and prerequisite flag '" + prerequisiteFlagKey + "'.");
         }
 
+        // The visited flags only have to be tracked when the prerequisite flag may lead back to a flag being evaluated.
+        boolean acyclic = prerequisiteFlagSetting.isAcyclicIn(context.getSettings());
         List<String> visitedKeys = context.getVisitedKeys();
-        if (visitedKeys == null) {
-            visitedKeys = new ArrayList<>();
-        }
-        visitedKeys.add(context.getKey());
-        if (visitedKeys.contains(prerequisiteFlagKey)) {
-            String dependencyCycle = EvaluateLogger.formatCircularDependencyList(visitedKeys, prerequisiteFlagKey);
-            throw new IllegalArgumentException("Circular dependency detected between the following depending flags: " + dependencyCycle + ".");
+        if (!acyclic) {
+            if (visitedKeys == null) {
+                visitedKeys = new ArrayList<>();
+            }
+            visitedKeys.add(context.getKey());
+            if (visitedKeys.contains(prerequisiteFlagKey)) {
+                String dependencyCycle = EvaluateLogger.formatCircularDependencyList(visitedKeys, prerequisiteFlagKey);
+                throw new IllegalArgumentException("Circular dependency detected between the following depending flags: " + dependencyCycle + ".");
+            }
         }
 
         evaluateLogger.logPrerequisiteFlagEvaluationStart(prerequisiteFlagKey);
 
-        EvaluationContext prerequisiteFlagContext = new EvaluationContext(prerequisiteFlagKey, context.getUser(), visitedKeys, context.getSettings());
+        EvaluationContext prerequisiteFlagContext = new EvaluationContext(prerequisiteFlagKey, context.getUser(), visitedKeys, context.getSettings(), context.getPass());
 
-        EvaluationResult evaluateResult = evaluateSetting(prerequisiteFlagSetting, evaluateLogger, prerequisiteFlagContext);
+        EvaluationResult evaluateResult = evaluateSettingInPass(prerequisiteFlagSetting, evaluateLogger, prerequisiteFlagContext);
+        context.increaseWarningCount(prerequisiteFlagContext.getWarningCount());
 
-        visitedKeys.remove(context.getKey());
+        if (!acyclic) {
+            visitedKeys.remove(context.getKey());
+        }
 
         if (evaluateResult.value == null) {
             return false;
         }
         validateSettingValueType(evaluateResult.value, prerequisiteFlagSetting.getType());
 
-        PrerequisiteComparator prerequisiteComparator = PrerequisiteComparator.fromId(prerequisiteFlagCondition.getPrerequisiteComparator());
+        PrerequisiteComparator prerequisiteComparator = resolution.getComparator();
         SettingValue conditionValue = prerequisiteFlagCondition.getValue();
         boolean result;
 
@@ -534,16 +366,16 @@ class RolloutEvaluator {
         evaluateLogger.logTargetingRules();
         for (TargetingRule rule : setting.getTargetingRules()) {
             boolean evaluateConditionsResult;
-            String error = null;
+            boolean failed = false;
             try {
                 evaluateConditionsResult = evaluateConditions(rule.getConditions(), rule, context, setting.getConfigSalt(), context.getKey(), setting.getSegments(), evaluateLogger);
             } catch (RolloutEvaluatorException rolloutEvaluatorException) {
-                error = rolloutEvaluatorException.getMessage();
+                failed = true;
                 evaluateConditionsResult = false;
             }
 
             if (!evaluateConditionsResult) {
-                if (error != null) {
+                if (failed) {
                     evaluateLogger.logTargetingRuleIgnored();
                 }
                 continue;
@@ -557,7 +389,7 @@ class RolloutEvaluator {
             }
 
             evaluateLogger.increaseIndentLevel();
-            EvaluationResult evaluatePercentageOptionsResult = evaluatePercentageOptions(rule.getPercentageOptions(), setting.getPercentageAttribute(), context, rule, evaluateLogger);
+            EvaluationResult evaluatePercentageOptionsResult = evaluatePercentageOptions(rule.getPercentageOptions(), rule.getPercentageOptionTable(), setting, context, rule, evaluateLogger);
             evaluateLogger.decreaseIndentLevel();
 
             if (evaluatePercentageOptionsResult == null) {
@@ -574,7 +406,7 @@ class RolloutEvaluator {
     private boolean evaluateConditions(ConditionAccessor[] conditions, TargetingRule targetingRule, EvaluationContext context, String configSalt, String contextSalt, Segment[] segments, EvaluateLogger evaluateLogger) {
         boolean firstConditionFlag = true;
         boolean conditionsEvaluationResult = true;
-        String error = null;
+        RolloutEvaluatorException error = null;
         boolean newLine = false;
         for (ConditionAccessor condition : conditions) {
             if (firstConditionFlag) {
@@ -592,7 +424,7 @@ class RolloutEvaluator {
                 try {
                     conditionsEvaluationResult = evaluateUserCondition(condition.getUserCondition(), context, configSalt, contextSalt, evaluateLogger);
                 } catch (RolloutEvaluatorException evaluatorException) {
-                    error = evaluatorException.getMessage();
+                    error = evaluatorException;
                     conditionsEvaluationResult = false;
                 }
                 newLine = conditions.length > 1;
@@ -600,15 +432,15 @@ class RolloutEvaluator {
                 try {
                     conditionsEvaluationResult = evaluateSegmentCondition(condition.getSegmentCondition(), context, configSalt, segments, evaluateLogger);
                 } catch (RolloutEvaluatorException evaluatorException) {
-                    error = evaluatorException.getMessage();
+                    error = evaluatorException;
                     conditionsEvaluationResult = false;
                 }
-                newLine = !USER_OBJECT_IS_MISSING.equals(error) || conditions.length > 1;
+                newLine = error != RolloutEvaluatorException.USER_OBJECT_IS_MISSING_EXCEPTION || conditions.length > 1;
             } else if (condition.getPrerequisiteFlagCondition() != null) {
                 try {
                     conditionsEvaluationResult = evaluatePrerequisiteFlagCondition(condition.getPrerequisiteFlagCondition(), context, evaluateLogger);
                 } catch (RolloutEvaluatorException evaluatorException) {
-                    error = evaluatorException.getMessage();
+                    error = evaluatorException;
                     conditionsEvaluationResult = false;
                 }
                 newLine = true;
@@ -626,22 +458,22 @@ class RolloutEvaluator {
             evaluateLogger.logTargetingRuleConsequence(targetingRule, error, conditionsEvaluationResult, newLine);
         }
         if (error != null) {
-            throw new RolloutEvaluatorException(error);
+            throw error;
         }
         return conditionsEvaluationResult;
     }
 
-    private EvaluationResult evaluatePercentageOptions(PercentageOption[] percentageOptions, String percentageOptionAttribute, EvaluationContext context, TargetingRule parentTargetingRule, EvaluateLogger evaluateLogger) {
+    private EvaluationResult evaluatePercentageOptions(PercentageOption[] percentageOptions, PercentageOptionTable percentageOptionTable, Setting setting, EvaluationContext context, TargetingRule parentTargetingRule, EvaluateLogger evaluateLogger) {
         if (context.getUser() == null) {
             evaluateLogger.logPercentageOptionUserMissing();
             if (!context.isUserMissing()) {
                 context.setUserMissing(true);
-                this.logger.warn(3001, ConfigCatLogMessages.getUserObjectMissing(context.getKey()));
+                logWarning(context, 3001, ConfigCatLogMessages.getUserObjectMissing(context.getKey()));
             }
             return null;
         }
         String percentageOptionAttributeValue;
-        String percentageOptionAttributeName = percentageOptionAttribute;
+        String percentageOptionAttributeName = setting.getPercentageAttribute();
         if (percentageOptionAttributeName == null) {
             percentageOptionAttributeName = "Identifier";
             percentageOptionAttributeValue = context.getUser().getIdentifier();
@@ -651,47 +483,25 @@ class RolloutEvaluator {
                 evaluateLogger.logPercentageOptionUserAttributeMissing(percentageOptionAttributeName);
                 if (!context.isUserAttributeMissing()) {
                     context.setUserAttributeMissing(true);
-                    this.logger.warn(3003, ConfigCatLogMessages.getUserAttributeMissing(context.getKey(), percentageOptionAttributeName));
+                    logWarning(context, 3003, ConfigCatLogMessages.getUserAttributeMissing(context.getKey(), percentageOptionAttributeName));
                 }
                 return null;
             }
         }
 
         evaluateLogger.logPercentageOptionEvaluation(percentageOptionAttributeName);
-        String hashCandidate = context.getKey() + percentageOptionAttributeValue;
-        int scale = 100;
-        String hexHash = Utils.sha1(hashCandidate.getBytes(StandardCharsets.UTF_8)).substring(0, 7);
-        int longHash = Integer.parseInt(hexHash, 16);
-        int scaled = longHash % scale;
+        int scaled = PercentageOptionTable.hashValue(context.getKey(), setting.getKeyUTF8(context.getKey()), String.valueOf(percentageOptionAttributeValue));
         evaluateLogger.logPercentageOptionEvaluationHash(percentageOptionAttributeName, scaled);
 
-        int bucket = 0;
-
-        for (int i = 0; i < percentageOptions.length; i++) {
-            PercentageOption rule = percentageOptions[i];
-            bucket += rule.getPercentage();
-            if (scaled < bucket) {
-                evaluateLogger.logPercentageEvaluationReturnValue(scaled, i, rule.getPercentage(), rule.getValue());
-                return new EvaluationResult(rule.getValue(), rule.getVariationId(), parentTargetingRule, rule);
-            }
+        int optionIndex = percentageOptionTable.indexOf(scaled);
+        if (optionIndex != PercentageOptionTable.NO_OPTION) {
+            PercentageOption rule = percentageOptions[optionIndex];
+            evaluateLogger.logPercentageEvaluationReturnValue(scaled, optionIndex, rule.getPercentage(), rule.getValue());
+            return new EvaluationResult(rule.getValue(), rule.getVariationId(), parentTargetingRule, rule);
         }
         throw new IllegalArgumentException("Sum of percentage option percentages is less than 100.");
     }
 
-    private static <T> T ensureComparisonValue(T value) {
-        if (value == null) {
-            throw new IllegalArgumentException(COMPARISON_VALUE_IS_MISSING_OR_INVALID);
-        }
-        return value;
-    }
-
-    private static String ensureConfigSalt(String configSalt){
-        if(configSalt == null){
-            throw new IllegalArgumentException("Config JSON salt is missing.");
-        }
-        return configSalt;
-    }
-
     private void validateSettingValueType(SettingValue settingValue, SettingType settingType) {
         if ( (SettingType.STRING.equals(settingType) && settingValue.getStringValue() == null)
             || (SettingType.INT.equals(settingType) && settingValue.getIntegerValue() == null )
@@ -702,8 +512,48 @@ class RolloutEvaluator {
     }
 }
 
+/**
+ * Signals that a condition can't be evaluated for the User Object, which makes the evaluation skip the targeting rule.
+ * <p>
+ * It only drives the control flow of the evaluation, so it has no stack trace and its message is only built when it is
+ * requested (e.g. for the evaluation log).
+ */
 class RolloutEvaluatorException extends RuntimeException {
-    public RolloutEvaluatorException(String message) {
-        super(message);
+    static final RolloutEvaluatorException USER_OBJECT_IS_MISSING_EXCEPTION = new RolloutEvaluatorException(RolloutEvaluator.USER_OBJECT_IS_MISSING);
+
+    private final String comparisonAttribute;
+    // The reason of an invalid attribute or null if the attribute is missing.
+    private final String reason;
+    private String message;
+
+    private RolloutEvaluatorException(String comparisonAttribute, String reason) {
+        super(null, null, false, false);
+        this.comparisonAttribute = comparisonAttribute;
+        this.reason = reason;
+    }
+
+    private RolloutEvaluatorException(String message) {
+        super(null, null, false, false);
+        this.comparisonAttribute = null;
+        this.reason = null;
+        this.message = message;
+    }
+
+    static RolloutEvaluatorException attributeMissing(String comparisonAttribute) {
+        return new RolloutEvaluatorException(comparisonAttribute, null);
+    }
+
+    static RolloutEvaluatorException attributeInvalid(String comparisonAttribute, String reason) {
+        return new RolloutEvaluatorException(comparisonAttribute, reason);
+    }
+
+    @Override
+    public String getMessage() {
+        if (message == null) {
+            message = reason == null
+                    ? RolloutEvaluator.CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + RolloutEvaluator.CANNOT_EVALUATE_THE_USER_MISSING
+                    : RolloutEvaluator.CANNOT_EVALUATE_THE_USER_PREFIX + comparisonAttribute + RolloutEvaluator.CANNOT_EVALUATE_THE_USER_INVALID + reason + ")";
+        }
+        return message;
     }
 }
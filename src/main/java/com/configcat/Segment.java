@@ -25,4 +25,15 @@ public class Segment {
     public UserCondition[] getSegmentRules() {
         return segmentRules;
     }
+
+    void compile(String configSalt) {
+        if (segmentRules == null) {
+            return;
+        }
+        for (UserCondition userCondition : segmentRules) {
+            if (userCondition != null) {
+                userCondition.getCompiledCondition(configSalt, name);
+            }
+        }
+    }
 }
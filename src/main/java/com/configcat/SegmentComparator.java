@@ -26,12 +26,21 @@ public enum SegmentComparator {
     }
 
     public static SegmentComparator fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    private static final SegmentComparator[] BY_ID = indexById();
+
+    private static SegmentComparator[] indexById() {
+        int maxId = -1;
+        for (SegmentComparator comparator : SegmentComparator.values()) {
+            maxId = Math.max(maxId, comparator.id);
+        }
+        SegmentComparator[] result = new SegmentComparator[maxId + 1];
         for (SegmentComparator comparator : SegmentComparator.values()) {
-            if (comparator.id == id) {
-                return comparator;
-            }
+            result[comparator.id] = comparator;
         }
-        return null;
+        return result;
     }
 
 }
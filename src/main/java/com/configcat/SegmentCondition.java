@@ -12,6 +12,8 @@ public class SegmentCondition {
 
     @SerializedName(value = "c")
     private int segmentComparator;
+    private transient SegmentComparator resolvedComparator;
+    private transient volatile boolean compiled;
 
     /**
      * The index of the segment that the condition is based on.
@@ -27,5 +29,15 @@ public class SegmentCondition {
         return segmentComparator;
     }
 
-
+    /**
+     * Returns the comparator of the condition or {@code null} if its id is invalid. It's normally resolved when the
+     * config is deserialized, but conditions created by other means get resolved on first use.
+     */
+    SegmentComparator getResolvedComparator() {
+        if (!compiled) {
+            resolvedComparator = SegmentComparator.fromId(segmentComparator);
+            compiled = true;
+        }
+        return resolvedComparator;
+    }
 }
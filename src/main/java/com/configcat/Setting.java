@@ -2,6 +2,9 @@ package com.configcat;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 /**
  * Feature flag or setting.
  */
@@ -21,6 +24,9 @@ public class Setting {
     private String variationId;
     private String configSalt;
     private Segment[] segments;
+    private transient volatile HashKey hashKey;
+    private transient volatile PercentageOptionTable percentageOptionTable;
+    private transient volatile Map<String, Setting> acyclicIn;
 
     public void setSettingsValue(SettingValue settingValue) {
         this.settingValue = settingValue;
@@ -88,4 +94,80 @@ public class Setting {
     public Segment[] getSegments() {
         return segments;
     }
-}
\ No newline at end of file
+
+    /**
+     * The UTF-8 encoded form of the setting key used for the percentage option hashing.
+     */
+    byte[] getKeyUTF8(String key) {
+        HashKey current = hashKey;
+        if (current == null || !current.key.equals(key)) {
+            current = new HashKey(key);
+            hashKey = current;
+        }
+        return current.keyUTF8;
+    }
+
+    PercentageOptionTable getPercentageOptionTable() {
+        PercentageOptionTable current = percentageOptionTable;
+        PercentageOptionTable table = PercentageOptionTable.of(percentageOptions, current);
+        if (table != current) {
+            percentageOptionTable = table;
+        }
+        return table;
+    }
+
+    /**
+     * Whether the setting is known not to reach a prerequisite flag dependency cycle in the given settings map.
+     */
+    boolean isAcyclicIn(Map<String, Setting> settings) {
+        return acyclicIn == settings;
+    }
+
+    void setAcyclicIn(Map<String, Setting> settings) {
+        this.acyclicIn = settings;
+    }
+
+    void compile(String key, Map<String, Setting> settings) {
+        getKeyUTF8(key);
+        if (percentageOptions != null) {
+            getPercentageOptionTable();
+        }
+        if (targetingRules == null) {
+            return;
+        }
+        for (TargetingRule targetingRule : targetingRules) {
+            if (targetingRule == null) {
+                continue;
+            }
+            if (targetingRule.getPercentageOptions() != null) {
+                targetingRule.getPercentageOptionTable();
+            }
+            Condition[] conditions = targetingRule.getConditions();
+            if (conditions == null) {
+                continue;
+            }
+            for (Condition condition : conditions) {
+                if (condition == null) {
+                    continue;
+                }
+                if (condition.getUserCondition() != null) {
+                    condition.getUserCondition().getCompiledCondition(configSalt, key);
+                } else if (condition.getSegmentCondition() != null) {
+                    condition.getSegmentCondition().getResolvedComparator();
+                } else if (condition.getPrerequisiteFlagCondition() != null) {
+                    condition.getPrerequisiteFlagCondition().resolve(settings);
+                }
+            }
+        }
+    }
+
+    private static final class HashKey {
+        private final String key;
+        private final byte[] keyUTF8;
+
+        HashKey(String key) {
+            this.key = key;
+            this.keyUTF8 = key.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
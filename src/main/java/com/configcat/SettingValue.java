@@ -52,6 +52,24 @@ public class SettingValue {
         return doubleValue;
     }
 
+    /**
+     * Returns the value of the given setting type or {@code null} if it's not set.
+     */
+    Object getValue(SettingType settingType) {
+        switch (settingType) {
+            case BOOLEAN:
+                return booleanValue;
+            case STRING:
+                return stringValue;
+            case INT:
+                return integerValue;
+            case DOUBLE:
+                return doubleValue;
+            default:
+                return null;
+        }
+    }
+
     public boolean equalsBasedOnSettingType(Object o, SettingType settingType) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
@@ -13,6 +13,7 @@ public class TargetingRule {
     private PercentageOption[] percentageOptions;
     @SerializedName(value = "s")
     private SimpleValue simpleValue;
+    private transient volatile PercentageOptionTable percentageOptionTable;
 
     /**
      * The list of conditions that are combined with the AND logical operator.
@@ -35,6 +36,15 @@ public class TargetingRule {
     public SimpleValue getSimpleValue() {
         return simpleValue;
     }
+
+    PercentageOptionTable getPercentageOptionTable() {
+        PercentageOptionTable current = percentageOptionTable;
+        PercentageOptionTable table = PercentageOptionTable.of(percentageOptions, current);
+        if (table != current) {
+            percentageOptionTable = table;
+        }
+        return table;
+    }
 }
 
 class SimpleValue {
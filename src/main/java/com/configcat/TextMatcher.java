@@ -0,0 +1,176 @@
+package com.configcat;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+
+/**
+ * Matches a text against a list of patterns in a single pass over the text, regardless of the number of patterns.
+ * <p>
+ * Starts with and ends with checks walk a prefix trie (built over the reversed patterns for ends with),
+ * contains checks run an Aho-Corasick automaton. Matching is performed on UTF-16 code units, so the results are the
+ * same as {@link String#startsWith(String)}, {@link String#endsWith(String)} and {@link String#contains(CharSequence)}.
+ */
+abstract class TextMatcher {
+
+    abstract boolean matches(String text);
+
+    static TextMatcher startsWith(String[] patterns, int count) {
+        return new PrefixMatcher(buildTrie(patterns, count, false), false);
+    }
+
+    static TextMatcher endsWith(String[] patterns, int count) {
+        return new PrefixMatcher(buildTrie(patterns, count, true), true);
+    }
+
+    static TextMatcher contains(String[] patterns, int count) {
+        Node root = buildTrie(patterns, count, false);
+        linkFailures(root);
+        return new ContainsMatcher(root);
+    }
+
+    private static final class PrefixMatcher extends TextMatcher {
+        private final Node root;
+        private final boolean reversed;
+
+        PrefixMatcher(Node root, boolean reversed) {
+            this.root = root;
+            this.reversed = reversed;
+        }
+
+        @Override
+        boolean matches(String text) {
+            Node node = root;
+            int length = text.length();
+            for (int i = 0; i < length && !node.terminal; i++) {
+                node = node.child(text.charAt(reversed ? length - 1 - i : i));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.terminal;
+        }
+    }
+
+    private static final class ContainsMatcher extends TextMatcher {
+        private final Node root;
+
+        ContainsMatcher(Node root) {
+            this.root = root;
+        }
+
+        @Override
+        boolean matches(String text) {
+            Node node = root;
+            if (node.output) {
+                return true;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                Node next = node.child(c);
+                while (next == null && node != root) {
+                    node = node.failure;
+                    next = node.child(c);
+                }
+                if (next != null) {
+                    node = next;
+                    if (node.output) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    private static final class Node {
+        private static final char[] NO_KEYS = new char[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private Map<Character, Node> pending = new TreeMap<>();
+        private char[] keys = NO_KEYS;
+        private Node[] children = NO_CHILDREN;
+        private Node failure;
+        // The node ends a pattern.
+        private boolean terminal;
+        // The node or one of its failure link ancestors ends a pattern.
+        private boolean output;
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node addChild(char c) {
+            Node child = pending.get(c);
+            if (child == null) {
+                child = new Node();
+                pending.put(c, child);
+            }
+            return child;
+        }
+
+        void freeze() {
+            keys = new char[pending.size()];
+            children = new Node[pending.size()];
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : pending.entrySet()) {
+                keys[i] = entry.getKey();
+                children[i] = entry.getValue();
+                i++;
+            }
+            pending = null;
+        }
+    }
+
+    private static Node buildTrie(String[] patterns, int count, boolean reversed) {
+        Node root = new Node();
+        for (int i = 0; i < count; i++) {
+            String pattern = patterns[i];
+            Node node = root;
+            int length = pattern.length();
+            for (int j = 0; j < length; j++) {
+                node = node.addChild(pattern.charAt(reversed ? length - 1 - j : j));
+            }
+            node.terminal = true;
+            node.output = true;
+        }
+        // Freezing breadth-first, so long patterns don't need deep recursion.
+        Queue<Node> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            node.freeze();
+            queue.addAll(Arrays.asList(node.children));
+        }
+        return root;
+    }
+
+    private static void linkFailures(Node root) {
+        Queue<Node> queue = new ArrayDeque<>();
+        root.failure = root;
+        for (Node child : root.children) {
+            child.failure = root;
+            child.output |= root.output;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            for (int i = 0; i < node.keys.length; i++) {
+                char c = node.keys[i];
+                Node child = node.children[i];
+                Node failure = node.failure;
+                Node target = failure.child(c);
+                while (target == null && failure != root) {
+                    failure = failure.failure;
+                    target = failure.child(c);
+                }
+                child.failure = target != null ? target : root;
+                child.output |= child.failure.output;
+                queue.add(child);
+            }
+        }
+    }
+}
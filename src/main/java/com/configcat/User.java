@@ -1,8 +1,9 @@
 package com.configcat;
 
+import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An object containing attributes to properly identify a given user for variation evaluation.
@@ -15,29 +16,122 @@ public class User {
     private static final String IDENTIFIER_KEY = "Identifier";
     private static final String EMAIL = "Email";
     private static final String COUNTRY = "Country";
+    private static final Object MISSING = new Object();
     private final String identifier;
-    private final Map<String, Object> attributes;
+    // The attribute names and values in the order they are serialized: Identifier, Email, Country and then the custom
+    // attributes ordered by name.
+    private final String[] names;
+    private final Object[] values;
+    // The index of the first custom attribute, the custom attributes are sorted by name from here.
+    private final int customOffset;
+    // The UserAttributeSlots slots of the attributes whose name had one when the User Object was built, in ascending
+    // order, and the indexes of the attributes in names and values. Names are only looked up here, slots are assigned
+    // by the compiled conditions.
+    private final int[] slots;
+    private final int[] slotIndexes;
+    private final UserAttributeProvider attributeProvider;
+    // The attributes looked up through the attribute provider so far.
+    private final ConcurrentHashMap<String, Object> providedAttributes;
+    private volatile UserDerivedValues derivedValues;
 
-    private User(String identifier, String email, String country, Map<String, Object> custom) {
+    private User(String identifier, String email, String country, Map<String, Object> custom, String[] customNames, Object[] customValues, int customCount,
+                 UserAttributeProvider attributeProvider) {
         this.identifier = identifier == null ? "" : identifier;
-        this.attributes = new TreeMap<>();
-        this.attributes.put(IDENTIFIER_KEY, identifier);
+        this.attributeProvider = attributeProvider;
+        this.providedAttributes = attributeProvider != null ? new ConcurrentHashMap<>() : null;
 
-        if (country != null && !country.isEmpty()) {
-            this.attributes.put(COUNTRY, country);
+        boolean hasEmail = email != null && !email.isEmpty();
+        boolean hasCountry = country != null && !country.isEmpty();
+        int predefinedCount = 1 + (hasEmail ? 1 : 0) + (hasCountry ? 1 : 0);
+        int maxCount = predefinedCount + (custom != null ? custom.size() : 0) + customCount;
+        String[] names = new String[maxCount];
+        Object[] values = new Object[maxCount];
+        int index = 0;
+        names[index] = IDENTIFIER_KEY;
+        values[index++] = identifier;
+        if (hasEmail) {
+            names[index] = EMAIL;
+            values[index++] = email;
         }
+        if (hasCountry) {
+            names[index] = COUNTRY;
+            values[index++] = country;
+        }
+        int count = index + sortCustomAttributes(custom, customNames, customValues, customCount, names, values, index);
+        // Only copied when predefined or duplicate names were left out of the custom attributes.
+        this.names = count == maxCount ? names : Arrays.copyOf(names, count);
+        this.values = count == maxCount ? values : Arrays.copyOf(values, count);
+        this.customOffset = predefinedCount;
 
-        if (email != null && !email.isEmpty()) {
-            this.attributes.put(EMAIL, email);
+        int slotCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (UserAttributeSlots.find(names[i]) != UserAttributeSlots.NO_SLOT) {
+                slotCount++;
+            }
+        }
+        this.slots = new int[slotCount];
+        this.slotIndexes = new int[slotCount];
+        int sortedCount = 0;
+        for (int i = 0; i < count && sortedCount < slotCount; i++) {
+            int slot = UserAttributeSlots.find(names[i]);
+            if (slot == UserAttributeSlots.NO_SLOT) {
+                continue;
+            }
+            // Insertion sort by slot, there are only a few attributes.
+            int position = sortedCount++;
+            while (position > 0 && slots[position - 1] > slot) {
+                slots[position] = slots[position - 1];
+                slotIndexes[position] = slotIndexes[position - 1];
+                position--;
+            }
+            slots[position] = slot;
+            slotIndexes[position] = i;
         }
+    }
 
+    /**
+     * Collects the custom attributes into {@code names} and {@code values} from {@code offset}, ordered by name and
+     * skipping the predefined ones. Attributes set one by one override the ones of the same name in the map. Returns
+     * the number of collected attributes.
+     */
+    private static int sortCustomAttributes(Map<String, Object> custom, String[] customNames, Object[] customValues, int customCount,
+                                            String[] names, Object[] values, int offset) {
+        int end = offset;
         if (custom != null) {
             for (Map.Entry<String, Object> entry : custom.entrySet()) {
-                if (!entry.getKey().equals(IDENTIFIER_KEY) && !entry.getKey().equals(COUNTRY) && !entry.getKey().equals(EMAIL)) {
-                    this.attributes.put(entry.getKey(), entry.getValue());
+                if (!isPredefined(entry.getKey())) {
+                    end = insertSorted(names, values, offset, end, entry.getKey(), entry.getValue());
                 }
             }
         }
+        for (int i = 0; i < customCount; i++) {
+            if (!isPredefined(customNames[i])) {
+                end = insertSorted(names, values, offset, end, customNames[i], customValues[i]);
+            }
+        }
+        return end - offset;
+    }
+
+    /**
+     * Inserts the attribute into the sorted range {@code [from, to)}, replacing the value of an attribute with the same
+     * name. Returns the new end of the range.
+     */
+    private static int insertSorted(String[] names, Object[] values, int from, int to, String name, Object value) {
+        int position = Arrays.binarySearch(names, from, to, name);
+        if (position >= 0) {
+            values[position] = value;
+            return to;
+        }
+        position = -position - 1;
+        System.arraycopy(names, position, names, position + 1, to - position);
+        System.arraycopy(values, position, values, position + 1, to - position);
+        names[position] = name;
+        values[position] = value;
+        return to + 1;
+    }
+
+    private static boolean isPredefined(String name) {
+        return name.equals(IDENTIFIER_KEY) || name.equals(COUNTRY) || name.equals(EMAIL);
     }
 
     public String getIdentifier() {
@@ -57,26 +151,71 @@ public class User {
         if (key == null)
             throw new IllegalArgumentException("key is null or empty");
 
-        return this.attributes.getOrDefault(key, null);
+        int slot = UserAttributeSlots.find(key);
+        if (slot != UserAttributeSlots.NO_SLOT) {
+            return getAttribute(slot, key);
+        }
+        Object value = getOwnAttribute(key);
+        return value != null ? value : getProvidedAttribute(key);
     }
 
-    @Override
-    public String toString() {
+    /**
+     * Returns the value of the attribute {@code name}, which is interned to the given {@link UserAttributeSlots} slot.
+     */
+    Object getAttribute(int slot, String name) {
+        int i = Arrays.binarySearch(slots, slot);
+        // Names that got their slot after this User Object was built are looked up by name.
+        Object value = i >= 0 ? values[slotIndexes[i]] : getOwnAttribute(name);
+        return value != null ? value : getProvidedAttribute(name);
+    }
 
-        LinkedHashMap<String, Object> tmp = new LinkedHashMap<>();
-        if (attributes.containsKey(IDENTIFIER_KEY)) {
-            tmp.put(IDENTIFIER_KEY, attributes.get(IDENTIFIER_KEY));
+    private Object getOwnAttribute(String name) {
+        for (int i = 0; i < customOffset; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        int i = Arrays.binarySearch(names, customOffset, names.length, name);
+        return i >= 0 ? values[i] : null;
+    }
+
+    boolean hasAttributeProvider() {
+        return attributeProvider != null;
+    }
+
+    private Object getProvidedAttribute(String name) {
+        if (attributeProvider == null || name.equals(IDENTIFIER_KEY)) {
+            return null;
         }
-        if (attributes.containsKey(EMAIL)) {
-            tmp.put(EMAIL, attributes.get(EMAIL));
+        Object value = providedAttributes.get(name);
+        if (value == null) {
+            // computeIfAbsent, so concurrent evaluations reading the same attribute call the provider only once.
+            value = providedAttributes.computeIfAbsent(name, attributeName -> {
+                Object providedValue = attributeProvider.getAttribute(attributeName);
+                return providedValue != null ? providedValue : MISSING;
+            });
         }
-        if (attributes.containsKey(COUNTRY)) {
-            tmp.put(COUNTRY, attributes.get(COUNTRY));
+        return value != MISSING ? value : null;
+    }
+
+    /**
+     * Returns the cache of the values derived from the text attributes of this User Object.
+     */
+    UserDerivedValues getDerivedValues() {
+        UserDerivedValues values = derivedValues;
+        if (values == null) {
+            // A lost race only costs a few recomputed values.
+            values = new UserDerivedValues();
+            derivedValues = values;
         }
-        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-            if (!entry.getKey().equals(IDENTIFIER_KEY) && !entry.getKey().equals(COUNTRY) && !entry.getKey().equals(EMAIL)) {
-                tmp.put(entry.getKey(), entry.getValue());
-            }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        LinkedHashMap<String, Object> tmp = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            tmp.put(names[i], values[i]);
         }
         return Utils.gson.toJson(tmp);
     }
@@ -88,6 +227,10 @@ public class User {
         private String email;
         private String country;
         private Map<String, Object> custom;
+        private String[] customNames;
+        private Object[] customValues;
+        private int customCount;
+        private UserAttributeProvider attributeProvider;
 
         /**
          * Optional. Sets the email of the user.
@@ -166,6 +309,47 @@ public class User {
             return this;
         }
 
+        /**
+         * Optional. Sets a custom attribute of the user.
+         * <p>
+         * The same values are accepted as the ones of {@link #custom(Map)}. Attributes set by this method take precedence
+         * over the ones with the same name passed to {@link #custom(Map)}.
+         *
+         * @param name  the name of the custom attribute.
+         * @param value the value of the custom attribute.
+         * @return the builder.
+         */
+        public Builder custom(String name, Object value) {
+            if (name == null) {
+                throw new IllegalArgumentException("'name' cannot be null.");
+            }
+            if (customNames == null) {
+                customNames = new String[8];
+                customValues = new Object[8];
+            } else if (customCount == customNames.length) {
+                customNames = Arrays.copyOf(customNames, customCount * 2);
+                customValues = Arrays.copyOf(customValues, customCount * 2);
+            }
+            customNames[customCount] = name;
+            customValues[customCount++] = value;
+            return this;
+        }
+
+        /**
+         * Optional. Sets a provider that looks up the attributes which were not set on this builder when a targeting
+         * rule reads them.
+         * <p>
+         * Every attribute is looked up at most once per {@link User} instance. The provided attributes are not included
+         * in the {@link User#toString()} representation.
+         *
+         * @param attributeProvider the attribute provider.
+         * @return the builder.
+         */
+        public Builder attributeProvider(UserAttributeProvider attributeProvider) {
+            this.attributeProvider = attributeProvider;
+            return this;
+        }
+
         /**
          * Builds the configured {@link User} instance.
          *
@@ -173,7 +357,8 @@ public class User {
          * @return the configured {@link User} instance.
          */
         public User build(String identifier) {
-            return new User(identifier, this.email, this.country, this.custom);
+            return new User(identifier, this.email, this.country, this.custom, this.customNames, this.customValues, this.customCount,
+                    this.attributeProvider);
         }
     }
 }
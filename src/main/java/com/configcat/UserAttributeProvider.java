@@ -0,0 +1,19 @@
+package com.configcat;
+
+/**
+ * Supplies User Object attributes on demand, so attributes that are costly to compute are only looked up when a
+ * targeting rule actually reads them.
+ */
+@FunctionalInterface
+public interface UserAttributeProvider {
+
+    /**
+     * Looks up a User Object attribute. It's called at most once per attribute name for a given {@link User} instance,
+     * and only for attributes that were not set on the {@link User.Builder}.
+     *
+     * @param name the name of the attribute.
+     * @return the value of the attribute or {@code null} if the user doesn't have it. The same values are accepted as
+     * the ones of {@link User.Builder#custom(java.util.Map)}.
+     */
+    Object getAttribute(String name);
+}
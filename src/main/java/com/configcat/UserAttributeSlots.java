@@ -0,0 +1,58 @@
+package com.configcat;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Process-wide table of interned User Object attribute names.
+ * <p>
+ * Slots are only assigned to the comparison attributes of compiled conditions, so the table is bounded by the configs
+ * rather than by the attributes callers put on User Objects. {@link User} looks its attribute names up and indexes the
+ * ones having a slot, so compiled conditions can read their comparison attribute without a name lookup. The number of
+ * slots is bounded; names seen after the table is full get no slot and are looked up by name.
+ */
+final class UserAttributeSlots {
+    static final int NO_SLOT = -1;
+    static final int IDENTIFIER = 0;
+    static final int EMAIL = 1;
+    static final int COUNTRY = 2;
+
+    private static final int MAX_SLOTS = 1024;
+    private static final ConcurrentHashMap<String, Integer> SLOTS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_SLOT = new AtomicInteger();
+
+    static {
+        slotOf("Identifier");
+        slotOf("Email");
+        slotOf("Country");
+    }
+
+    private UserAttributeSlots() { /* prevent from instantiation*/ }
+
+    /**
+     * Returns the slot of the attribute name, assigning a new one if the name hasn't been seen yet. Returns
+     * {@link #NO_SLOT} if the table is full.
+     */
+    static int slotOf(String name) {
+        Integer slot = SLOTS.get(name);
+        if (slot != null) {
+            return slot;
+        }
+        if (NEXT_SLOT.get() >= MAX_SLOTS) {
+            return NO_SLOT;
+        }
+        slot = SLOTS.computeIfAbsent(name, n -> {
+            int next = NEXT_SLOT.getAndIncrement();
+            return next < MAX_SLOTS ? next : null;
+        });
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    /**
+     * Returns the slot of the attribute name or {@link #NO_SLOT} if it has none, without assigning a new one.
+     */
+    static int find(String name) {
+        Integer slot = SLOTS.get(name);
+        return slot != null ? slot : NO_SLOT;
+    }
+}
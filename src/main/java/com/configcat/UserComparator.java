@@ -163,12 +163,21 @@ public enum UserComparator {
     }
 
     public static UserComparator fromId(int id) {
+        return id >= 0 && id < BY_ID.length ? BY_ID[id] : null;
+    }
+
+    private static final UserComparator[] BY_ID = indexById();
+
+    private static UserComparator[] indexById() {
+        int maxId = -1;
+        for (UserComparator userComparator : UserComparator.values()) {
+            maxId = Math.max(maxId, userComparator.id);
+        }
+        UserComparator[] result = new UserComparator[maxId + 1];
         for (UserComparator userComparator : UserComparator.values()) {
-            if (userComparator.id == id) {
-                return userComparator;
-            }
+            result[userComparator.id] = userComparator;
         }
-        return null;
+        return result;
     }
 
 }
@@ -19,6 +19,8 @@ public class UserCondition implements ConditionAccessor {
     @SerializedName("l")
     private String[] stringArrayValue;
 
+    private transient volatile CompiledUserCondition compiledCondition;
+
     /**
      * The User Object attribute that the condition is based on. Can be "Identifier", "Email", "Country" or any custom attribute.
      */
@@ -54,6 +56,19 @@ public class UserCondition implements ConditionAccessor {
         return stringArrayValue;
     }
 
+    /**
+     * Returns the pre-resolved form of this condition for the given salts. It's normally built when the config is
+     * deserialized, but conditions created by other means get compiled on first use.
+     */
+    CompiledUserCondition getCompiledCondition(String configSalt, String contextSalt) {
+        CompiledUserCondition compiled = compiledCondition;
+        if (compiled == null || !compiled.isCompiledFor(configSalt, contextSalt)) {
+            compiled = CompiledUserCondition.compile(this, configSalt, contextSalt);
+            compiledCondition = compiled;
+        }
+        return compiled;
+    }
+
     @Override
     public UserCondition getUserCondition() {
         return this;
@@ -0,0 +1,173 @@
+package com.configcat;
+
+import de.skuzzle.semantic.Version;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the forms the evaluator derives from the text attributes of a {@link User}: parsed semantic versions,
+ * numbers (also used for Unix timestamps), string arrays and salted hashes.
+ * <p>
+ * Only text attribute values are cached, as they can't change after the User Object was built. Failed conversions are
+ * cached too, so an invalid value is parsed only once; reporting the failure is left to the evaluator. The number of
+ * entries is bounded, values beyond the limit are computed on every call. Lookups take a pre-built {@link Key}, so a
+ * hit doesn't allocate.
+ */
+final class UserDerivedValues {
+    private static final int MAX_SIZE = 256;
+    private static final Object INVALID = new Object();
+
+    private enum Kind {
+        VERSION,
+        NUMBER,
+        STRING_ARRAY,
+        SALTED_HASH
+    }
+
+    private final ConcurrentHashMap<Key, Object> values = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the attribute value parsed as a semantic version or {@code null} if it's not a valid one.
+     */
+    Version getVersion(Key key, String value) {
+        Object version = values.get(key);
+        if (version == null) {
+            try {
+                version = Version.parseVersion(value.trim(), true);
+            } catch (Version.VersionFormatException e) {
+                version = INVALID;
+            }
+            remember(key, version);
+        }
+        return version != INVALID ? (Version) version : null;
+    }
+
+    /**
+     * Returns the attribute value parsed as a number or {@code null} if it's not a valid one.
+     */
+    Double getNumber(Key key, String value) {
+        Object number = values.get(key);
+        if (number == null) {
+            try {
+                number = UserAttributeConverter.userAttributeToDouble(value);
+            } catch (NumberFormatException e) {
+                number = INVALID;
+            }
+            remember(key, number);
+        }
+        return number != INVALID ? (Double) number : null;
+    }
+
+    /**
+     * Returns the attribute value parsed as a JSON string array or {@code null} if it's not a valid one (including
+     * arrays with null items). The returned array must not be modified.
+     */
+    String[] getStringArray(Key key, String value) {
+        Object array = values.get(key);
+        if (array == null) {
+            array = parseStringArray(value);
+            remember(key, array);
+        }
+        return array != INVALID ? (String[]) array : null;
+    }
+
+    /**
+     * Returns the SHA256 digest of the attribute value followed by the salt of the key. The returned array must not be
+     * modified.
+     */
+    byte[] getSaltedHash(Key key, String value, byte[] saltUTF8) {
+        Object hash = values.get(key);
+        if (hash == null) {
+            // HashUtils returns a per-thread buffer, the cache needs its own copy.
+            hash = HashUtils.sha256(value, key.salt, saltUTF8).clone();
+            remember(key, hash);
+        }
+        return (byte[]) hash;
+    }
+
+    private static Object parseStringArray(String value) {
+        try {
+            String[] result = Utils.gson.fromJson(value, String[].class);
+            if (result == null) {
+                return INVALID;
+            }
+            for (String item : result) {
+                if (item == null) {
+                    return INVALID;
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            return INVALID;
+        }
+    }
+
+    private void remember(Key key, Object value) {
+        if (values.size() < MAX_SIZE) {
+            values.putIfAbsent(key, value);
+        }
+    }
+
+    /**
+     * Returns the key of the semantic version parsed from the attribute.
+     */
+    static Key versionKey(String attribute) {
+        return new Key(Kind.VERSION, attribute, null);
+    }
+
+    /**
+     * Returns the key of the number (or Unix timestamp) parsed from the attribute.
+     */
+    static Key numberKey(String attribute) {
+        return new Key(Kind.NUMBER, attribute, null);
+    }
+
+    /**
+     * Returns the key of the string array parsed from the attribute.
+     */
+    static Key stringArrayKey(String attribute) {
+        return new Key(Kind.STRING_ARRAY, attribute, null);
+    }
+
+    /**
+     * Returns the key of the hash of the attribute salted with the given salt.
+     */
+    static Key saltedHashKey(String attribute, String salt) {
+        return new Key(Kind.SALTED_HASH, attribute, salt);
+    }
+
+    /**
+     * Identifies a derived value. Keys don't depend on the User Object, so they are built once per compiled condition.
+     */
+    static final class Key {
+        private final Kind kind;
+        private final String attribute;
+        private final String salt;
+        private final int hash;
+
+        Key(Kind kind, String attribute, String salt) {
+            this.kind = kind;
+            this.attribute = attribute;
+            this.salt = salt;
+            this.hash = 31 * (31 * kind.ordinal() + attribute.hashCode()) + Objects.hashCode(salt);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return hash == other.hash && kind == other.kind && attribute.equals(other.attribute) && Objects.equals(salt, other.salt);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
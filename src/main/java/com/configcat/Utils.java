@@ -8,6 +8,7 @@ import org.apache.commons.codec.digest.DigestUtils;
 import java.text.DecimalFormat;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
+import java.util.Map;
 
 final class Utils {
     private Utils() { /* prevent from instantiation*/ }
@@ -52,10 +53,18 @@ final class Utils {
         if (segments == null) {
             segments = new Segment[]{};
         }
-        for (Setting setting : config.getEntries().values()) {
+        for (Map.Entry<String, Setting> entry : config.getEntries().entrySet()) {
+            Setting setting = entry.getValue();
             setting.setConfigSalt(salt);
             setting.setSegments(segments);
+            setting.compile(entry.getKey(), config.getEntries());
         }
+        for (Segment segment : segments) {
+            if (segment != null) {
+                segment.compile(salt);
+            }
+        }
+        PrerequisiteGraph.analyze(config.getEntries());
         return config;
     }
 }
@@ -0,0 +1,214 @@
+package com.configcat;
+
+import de.skuzzle.semantic.Version;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompiledUserConditionTest {
+
+    private static final String CONFIG_JSON = "{\"p\":{\"u\":\"https://cdn-global.configcat.com\",\"r\":0,\"s\":\"test-salt\"}," +
+            "\"s\":[{\"n\":\"Beta users\",\"r\":[{\"a\":\"Email\",\"c\":2,\"l\":[\"@example.com\"]}]}]," +
+            "\"f\":{\"flag\":{\"t\":0,\"r\":[{\"c\":[{\"u\":{\"a\":\"Version\",\"c\":9,\"s\":\"1.2.0\"}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}}}";
+
+    @Test
+    void conditionsAreCompiledWhenTheConfigIsDeserialized() {
+        Config config = Utils.deserializeConfig(CONFIG_JSON);
+
+        UserCondition flagCondition = config.getEntries().get("flag").getTargetingRules()[0].getConditions()[0].getUserCondition();
+        CompiledUserCondition compiledFlagCondition = flagCondition.getCompiledCondition("test-salt", "flag");
+        assertSame(compiledFlagCondition, flagCondition.getCompiledCondition("test-salt", "flag"));
+        assertEquals(UserComparator.SEMVER_GREATER_EQUALS, compiledFlagCondition.getComparator());
+        assertEquals(CompiledUserCondition.Kind.SEMVER_COMPARE, compiledFlagCondition.getKind());
+
+        UserCondition segmentCondition = config.getSegments()[0].getSegmentRules()[0];
+        CompiledUserCondition compiledSegmentCondition = segmentCondition.getCompiledCondition("test-salt", "Beta users");
+        assertSame(compiledSegmentCondition, segmentCondition.getCompiledCondition("test-salt", "Beta users"));
+        assertEquals(CompiledUserCondition.Kind.CONTAINS_ANY_OF, compiledSegmentCondition.getKind());
+        assertTrue(compiledSegmentCondition.evaluateText("john@example.com"));
+        assertFalse(compiledSegmentCondition.evaluateText("john@example.org"));
+    }
+
+    @Test
+    void segmentAndPrerequisiteFlagConditionsAreResolvedWhenTheConfigIsDeserialized() {
+        Config config = Utils.deserializeConfig("{\"p\":{\"s\":\"test-salt\"},\"s\":[{\"n\":\"Beta users\",\"r\":[{\"a\":\"Email\",\"c\":2,\"l\":[\"@example.com\"]}]}]," +
+                "\"f\":{\"flag\":{\"t\":0,\"r\":[{\"c\":[{\"s\":{\"s\":0,\"c\":1}},{\"p\":{\"f\":\"other\",\"c\":0,\"v\":{\"s\":\"value\"}}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}," +
+                "\"other\":{\"t\":1,\"v\":{\"s\":\"value\"}}}}");
+        Map<String, Setting> settings = config.getEntries();
+        Condition[] conditions = settings.get("flag").getTargetingRules()[0].getConditions();
+
+        assertEquals(SegmentComparator.IS_NOT_IN_SEGMENT, conditions[0].getSegmentCondition().getResolvedComparator());
+
+        PrerequisiteFlagCondition.Resolution resolution = conditions[1].getPrerequisiteFlagCondition().resolve(settings);
+        assertSame(resolution, conditions[1].getPrerequisiteFlagCondition().resolve(settings));
+        assertSame(settings.get("other"), resolution.getSetting());
+        assertEquals(PrerequisiteComparator.EQUALS, resolution.getComparator());
+        assertNotSame(resolution, conditions[1].getPrerequisiteFlagCondition().resolve(new HashMap<>(settings)));
+    }
+
+    @Test
+    void ruleWithoutConditionsDoesNotPreventLoadingTheConfig() {
+        Config config = Utils.deserializeConfig("{\"p\":{\"s\":\"test-salt\"},\"f\":{" +
+                "\"flag\":{\"t\":0,\"r\":[{\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}," +
+                "\"other\":{\"t\":1,\"v\":{\"s\":\"value\"}}}}");
+
+        RolloutEvaluator evaluator = new RolloutEvaluator(new ConfigCatLogger(LoggerFactory.getLogger(CompiledUserConditionTest.class)));
+        Map<String, Setting> settings = config.getEntries();
+        assertTrue(evaluator.evaluate(settings.get("flag"), "flag", null, settings, new EvaluateLogger(LogLevel.WARNING)).value.getBooleanValue());
+        assertEquals("value", evaluator.evaluate(settings.get("other"), "other", null, settings, new EvaluateLogger(LogLevel.WARNING)).value.getStringValue());
+    }
+
+    @Test
+    void conditionIsRecompiledForDifferentSalts() {
+        Config config = Utils.gson.fromJson(CONFIG_JSON, Config.class);
+        UserCondition condition = config.getEntries().get("flag").getTargetingRules()[0].getConditions()[0].getUserCondition();
+
+        CompiledUserCondition first = condition.getCompiledCondition("salt1", "flag");
+        CompiledUserCondition second = condition.getCompiledCondition("salt2", "flag");
+        assertNotSame(first, second);
+        assertTrue(second.isCompiledFor("salt2", "flag"));
+        assertFalse(second.isCompiledFor("salt1", "flag"));
+    }
+
+    @Test
+    void invalidComparatorIsReportedOnEvaluation() {
+        UserCondition condition = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":99,\"l\":[\"a\"]}", UserCondition.class);
+        CompiledUserCondition compiled = condition.getCompiledCondition("salt", "key");
+
+        assertNull(compiled.getComparator());
+        assertNull(compiled.getKind());
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> compiled.evaluateText("a"));
+        assertEquals(RolloutEvaluator.COMPARISON_OPERATOR_IS_INVALID, exception.getMessage());
+    }
+
+    @Test
+    void missingListItemIsReportedOnlyWhenReached() {
+        UserCondition condition = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":0,\"l\":[\"a\",null,\"b\"]}", UserCondition.class);
+        CompiledUserCondition compiled = condition.getCompiledCondition("salt", "key");
+
+        assertTrue(compiled.evaluateText("a"));
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> compiled.evaluateText("b"));
+        assertEquals(RolloutEvaluator.COMPARISON_VALUE_IS_MISSING_OR_INVALID, exception.getMessage());
+    }
+
+    @Test
+    void largeComparisonListsAreLookedUpByValue() {
+        StringBuilder items = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            items.append(i == 0 ? "" : ",").append("\"user").append(i).append("@example.com\"");
+        }
+        UserCondition isOneOf = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":1,\"l\":[" + items + "]}", UserCondition.class);
+        CompiledUserCondition compiledIsOneOf = isOneOf.getCompiledCondition("salt", "key");
+        assertFalse(compiledIsOneOf.evaluateText("user9999@example.com"));
+        assertTrue(compiledIsOneOf.evaluateText("user10000@example.com"));
+
+        UserCondition arrayContains = Utils.gson.fromJson("{\"a\":\"Roles\",\"c\":34,\"l\":[" + items + "]}", UserCondition.class);
+        CompiledUserCondition compiledArrayContains = arrayContains.getCompiledCondition("salt", "key");
+        assertTrue(compiledArrayContains.evaluateArrayContains(new String[]{"admin", "user42@example.com"}));
+        assertFalse(compiledArrayContains.evaluateArrayContains(new String[]{"admin"}));
+        assertFalse(compiledArrayContains.evaluateArrayContains(new String[0]));
+    }
+
+    @Test
+    void longTextListsUseTheMatcher() {
+        String items = "\"@a.com\",\"@b.com\",\"@c.com\",\"@d.com\",\"@e.com\",\"@f.com\",\"@g.com\",\"@h.com\"";
+        CompiledUserCondition endsWith = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":33,\"l\":[" + items + "]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertFalse(endsWith.evaluateText("john@h.com"));
+        assertTrue(endsWith.evaluateText("john@x.com"));
+
+        CompiledUserCondition containsWithMissingItem = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":2,\"l\":[" + items + ",null]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertTrue(containsWithMissingItem.evaluateText("john@g.com"));
+        assertThrows(IllegalArgumentException.class, () -> containsWithMissingItem.evaluateText("john@x.com"));
+    }
+
+    @Test
+    void hashedComparisonListsAreLookedUpByHash() {
+        String hash = Utils.sha256("vip@example.com" + "salt" + "key");
+        UserCondition condition = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":16,\"l\":[\"x\",\"" + hash + "\"]}", UserCondition.class);
+        CompiledUserCondition compiled = condition.getCompiledCondition("salt", "key");
+
+        assertTrue(compiled.evaluateText("vip@example.com"));
+        assertFalse(compiled.evaluateText("other@example.com"));
+    }
+
+    @Test
+    void semverComparisonValuesArePreParsed() {
+        CompiledUserCondition isOneOf = Utils.gson.fromJson("{\"a\":\"Version\",\"c\":4,\"l\":[\" 2.0.0 \",\"\",\"1.0.0\",\"3.0.0-beta.1\"]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertTrue(isOneOf.evaluateSemver(Version.parseVersion("1.0.0", true)));
+        assertTrue(isOneOf.evaluateSemver(Version.parseVersion("3.0.0-beta.1", true)));
+        assertFalse(isOneOf.evaluateSemver(Version.parseVersion("3.0.0", true)));
+
+        CompiledUserCondition less = Utils.gson.fromJson("{\"a\":\"Version\",\"c\":6,\"s\":\" 2.0.0 \"}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertTrue(less.evaluateSemver(Version.parseVersion("1.9.9", true)));
+        assertFalse(less.evaluateSemver(Version.parseVersion("2.0.0", true)));
+
+        CompiledUserCondition invalid = Utils.gson.fromJson("{\"a\":\"Version\",\"c\":6,\"s\":\"x.y\"}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertFalse(invalid.evaluateSemver(Version.parseVersion("1.0.0", true)));
+    }
+
+    @Test
+    void semverListWithInvalidItemsKeepsBackwardCompatibleResults() {
+        Version version = Version.parseVersion("1.0.0", true);
+
+        CompiledUserCondition invalidFirst = Utils.gson.fromJson("{\"a\":\"Version\",\"c\":5,\"l\":[\"1.0.0\",\"x\",null]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertFalse(invalidFirst.evaluateSemver(version));
+
+        CompiledUserCondition missingFirst = Utils.gson.fromJson("{\"a\":\"Version\",\"c\":4,\"l\":[\"1.0.0\",null,\"x\"]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertThrows(IllegalArgumentException.class, () -> missingFirst.evaluateSemver(version));
+    }
+
+    @Test
+    void hashedStartsAndEndsWithValuesArePreDecoded() {
+        String startsWith = hashedSlice("jo", "salt", "key");
+        String endsWith = hashedSlice("é.org", "salt", "key");
+        CompiledUserCondition hashedStartsWith = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":22,\"l\":[\"" + hashedSlice("x", "salt", "key") + "\",\"" + startsWith + "\",\"3_ABC\"]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertTrue(hashedStartsWith.evaluateText("john@example.com"));
+        assertFalse(hashedStartsWith.evaluateText("jane@example.com"));
+        assertFalse(hashedStartsWith.evaluateText("j"));
+
+        CompiledUserCondition hashedNotEndsWith = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":25,\"l\":[\"" + endsWith + "\"]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+        assertFalse(hashedNotEndsWith.evaluateText("joé.org"));
+        assertTrue(hashedNotEndsWith.evaluateText("joe.org"));
+    }
+
+    @Test
+    void malformedHashedStartsWithValuesAreReportedOnlyWhenReached() {
+        CompiledUserCondition condition = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":22,\"l\":[\"" + hashedSlice("jo", "salt", "key") + "\",\"10_\"]}", UserCondition.class)
+                .getCompiledCondition("salt", "key");
+
+        assertTrue(condition.evaluateText("john@example.com"));
+        assertFalse(condition.evaluateText("jane"));
+        assertThrows(IllegalArgumentException.class, () -> condition.evaluateText("jane@example.com"));
+    }
+
+    @Test
+    void comparatorsAreResolvedById() {
+        for (UserComparator comparator : UserComparator.values()) {
+            assertSame(comparator, UserComparator.fromId(comparator.ordinal()));
+        }
+        assertNull(UserComparator.fromId(-1));
+        assertNull(UserComparator.fromId(UserComparator.values().length));
+        assertEquals(SegmentComparator.IS_NOT_IN_SEGMENT, SegmentComparator.fromId(1));
+        assertNull(SegmentComparator.fromId(2));
+        assertEquals(PrerequisiteComparator.NOT_EQUALS, PrerequisiteComparator.fromId(1));
+        assertNull(PrerequisiteComparator.fromId(-5));
+    }
+
+    private static String hashedSlice(String slice, String configSalt, String contextSalt) {
+        return slice.getBytes(StandardCharsets.UTF_8).length + "_" + Utils.sha256(slice + configSalt + contextSalt);
+    }
+}
@@ -0,0 +1,178 @@
+package com.configcat;
+
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConfigCacheTest {
+    private static final String TEST_JSON = "{ p: { s: 'test-salt'}, f: { fakeKey: { v: { s: %s }, p: [], r: [] } } }";
+    private final ConfigCatLogger logger = new ConfigCatLogger(LoggerFactory.getLogger(ConfigCacheTest.class));
+
+    @Test
+    void extractsETag() {
+        assertEquals("etag", ConfigCache.getETag(Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test"), "etag")));
+        assertNull(ConfigCache.getETag("no-etag"));
+        assertNull(ConfigCache.getETag(null));
+    }
+
+    @Test
+    void readsOnlyChangedValues() throws Exception {
+        List<String> knownETags = new ArrayList<>();
+        ConfigCache cache = new SingleValueCache(Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test"), "etag")) {
+            @Override
+            protected String readIfChanged(String key, String knownETag) {
+                knownETags.add(knownETag);
+                String value = read(key);
+                return knownETag != null && knownETag.equals(getETag(value)) ? null : value;
+            }
+        };
+
+        PollingMode mode = PollingModes.lazyLoad(60);
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", "http://localhost", false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        assertEquals("test", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+        Thread.sleep(10);
+        cache.write("", Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test2"), "etag2"));
+        assertEquals("test2", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+
+        assertEquals(Arrays.asList(null, "etag", "etag"), knownETags);
+
+        service.close();
+    }
+
+    @Test
+    void pendingReadDoesNotBlockSettings() throws Exception {
+        List<CompletableFuture<String>> reads = new ArrayList<>();
+        ConfigCache cache = new SingleValueCache(Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test"), "etag")) {
+            @Override
+            protected CompletableFuture<String> readAsync(String key, String knownETag) {
+                CompletableFuture<String> read = reads.isEmpty() ? super.readAsync(key, knownETag) : new CompletableFuture<>();
+                reads.add(read);
+                return read;
+            }
+        };
+
+        PollingMode mode = PollingModes.lazyLoad(60);
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", "http://localhost", false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        CompletableFuture<SettingResult> settings = service.getSettings();
+        assertTrue(settings.isDone());
+        assertEquals("test", settings.get().settings().get("fakeKey").getSettingsValue().getStringValue());
+        assertEquals("test", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+        assertEquals(2, reads.size());
+
+        Thread.sleep(10);
+        reads.get(1).complete(Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test2"), "etag2"));
+        assertEquals("test2", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+
+        service.close();
+    }
+
+    @Test
+    void failedReadDoesNotStopSyncing() throws Exception {
+        List<String> knownETags = new ArrayList<>();
+        ConfigCache cache = new SingleValueCache(Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test"), "etag")) {
+            @Override
+            protected CompletableFuture<String> readAsync(String key, String knownETag) {
+                knownETags.add(knownETag);
+                if (knownETags.size() == 2) {
+                    CompletableFuture<String> read = new CompletableFuture<>();
+                    read.completeExceptionally(new Exception("read failure"));
+                    return read;
+                }
+                return super.readAsync(key, knownETag);
+            }
+        };
+
+        PollingMode mode = PollingModes.lazyLoad(60);
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", "http://localhost", false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        assertEquals("test", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+        Thread.sleep(10);
+        cache.write("", Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test2"), "etag2"));
+        assertEquals("test2", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+
+        assertEquals(3, knownETags.size());
+
+        service.close();
+    }
+
+    @Test
+    void pendingInitialReadDoesNotBlockConstructor() throws Exception {
+        CompletableFuture<String> initialRead = new CompletableFuture<>();
+        ConfigCache cache = new SingleValueCache(null) {
+            @Override
+            protected CompletableFuture<String> readAsync(String key, String knownETag) {
+                return initialRead;
+            }
+        };
+
+        PollingMode mode = PollingModes.manualPoll();
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", "http://localhost", false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        CompletableFuture<SettingResult> settings = service.getSettings();
+        assertFalse(settings.isDone());
+        assertNull(service.getSettingsIfAvailable());
+
+        initialRead.complete(Helpers.cacheValueFromConfigJsonWithEtag(String.format(TEST_JSON, "test"), "etag"));
+        assertTrue(settings.isDone());
+        assertEquals("test", settings.get().settings().get("fakeKey").getSettingsValue().getStringValue());
+        assertEquals("test", service.getSettingsIfAvailable().settings().get("fakeKey").getSettingsValue().getStringValue());
+
+        service.close();
+    }
+
+    @Test
+    void neverCompletingInitialReadTimesOut() throws Exception {
+        ConfigCache cache = new SingleValueCache(null) {
+            @Override
+            protected CompletableFuture<String> readAsync(String key, String knownETag) {
+                return new CompletableFuture<>();
+            }
+        };
+
+        PollingMode mode = PollingModes.manualPoll();
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", "http://localhost", false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        assertTrue(service.getSettings().get(15, TimeUnit.SECONDS).isEmpty());
+
+        service.close();
+    }
+
+    @Test
+    void neverCompletingInitialReadIsReleasedOnClose() throws Exception {
+        ConfigCache cache = new SingleValueCache(null) {
+            @Override
+            protected CompletableFuture<String> readAsync(String key, String knownETag) {
+                return new CompletableFuture<>();
+            }
+        };
+
+        PollingMode mode = PollingModes.manualPoll();
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", "http://localhost", false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        CompletableFuture<SettingResult> settings = service.getSettings();
+        assertFalse(settings.isDone());
+
+        service.close();
+        assertTrue(settings.isDone());
+        assertTrue(settings.get().isEmpty());
+    }
+}
@@ -18,6 +18,8 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -1146,6 +1148,25 @@ public class ConfigCatClientTest {
         assertEquals("defaultValue", result);
     }
 
+    @Test
+    void getValuesForUsersWithoutConfigDoesNotCallConsumer() throws Exception {
+        List<Integer> errors = new ArrayList<>();
+        ConfigCatClient cl = ConfigCatClient.get(Helpers.SDK_KEY, options -> {
+            options.pollingMode(PollingModes.manualPoll());
+            options.offline(true);
+            options.logFilter((logLevel, eventId, message, exception) -> errors.add(eventId));
+        });
+        List<User> users = Arrays.asList(User.newBuilder().build("a"), User.newBuilder().build("b"));
+        AtomicBoolean consumerCalled = new AtomicBoolean(false);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
 
-}
+        cl.getValuesForUsersAsync(Collections.singletonList("fakeKey"), users, (user, values) -> consumerCalled.set(true), executor)
+                .get(5, TimeUnit.SECONDS);
+
+        assertFalse(consumerCalled.get());
+        assertEquals(Collections.singletonList(1000), errors);
 
+        executor.shutdown();
+        cl.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EvaluateLoggerTest {
+
+    @Test
+    void notLoggableLoggerIsShared() {
+        assertSame(EvaluateLogger.forLogLevel(LogLevel.WARNING), EvaluateLogger.forLogLevel(LogLevel.NO_LOG));
+        assertNotSame(EvaluateLogger.forLogLevel(LogLevel.INFO), EvaluateLogger.forLogLevel(LogLevel.INFO));
+    }
+
+    @Test
+    void notLoggableLoggerKeepsNoState() {
+        EvaluateLogger evaluateLogger = EvaluateLogger.forLogLevel(LogLevel.WARNING);
+
+        evaluateLogger.logEvaluation("key");
+        evaluateLogger.increaseIndentLevel();
+        evaluateLogger.logReturnValue((SettingValue) null);
+
+        assertEquals("", evaluateLogger.toPrint());
+    }
+
+    @Test
+    void invalidComparatorsAreReportedWhenNotLoggable() {
+        UserCondition userCondition = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":-1,\"s\":\"x\"}", UserCondition.class);
+        SegmentCondition segmentCondition = Utils.gson.fromJson("{\"s\":0,\"c\":-1}", SegmentCondition.class);
+        PrerequisiteFlagCondition prerequisiteFlagCondition = Utils.gson.fromJson("{\"f\":\"key\",\"c\":-1,\"v\":{\"b\":true}}", PrerequisiteFlagCondition.class);
+
+        for (LogLevel logLevel : new LogLevel[]{LogLevel.INFO, LogLevel.WARNING}) {
+            EvaluateLogger evaluateLogger = EvaluateLogger.forLogLevel(logLevel);
+            assertEquals("Comparison operator is invalid.",
+                    assertThrows(IllegalArgumentException.class, () -> evaluateLogger.logUserCondition(userCondition)).getMessage());
+            assertEquals("Segment comparison operator is invalid.",
+                    assertThrows(IllegalArgumentException.class, () -> evaluateLogger.logSegmentFlagCondition(segmentCondition, null)).getMessage());
+            assertEquals("Prerequisite Flag comparison operator is invalid.",
+                    assertThrows(IllegalArgumentException.class, () -> evaluateLogger.logPrerequisiteFlagCondition(prerequisiteFlagCondition)).getMessage());
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class EvaluationCacheTest {
+    private static final String CONFIG = "{\"p\":{\"s\":\"salt\"},"
+            + "\"s\":[{\"n\":\"dates\",\"r\":[{\"a\":\"Created\",\"c\":18,\"d\":1700000000}]}],"
+            + "\"f\":{"
+            + "\"plain\":{\"t\":1,\"v\":{\"s\":\"v\"}},"
+            + "\"byEmail\":{\"t\":1,\"r\":[{\"c\":[{\"u\":{\"a\":\"Email\",\"c\":2,\"l\":[\"@example.com\"]}}],\"s\":{\"v\":{\"s\":\"a\"}}}],\"v\":{\"s\":\"b\"}},"
+            + "\"byDate\":{\"t\":0,\"r\":[{\"c\":[{\"u\":{\"a\":\"Created\",\"c\":19,\"d\":1700000000}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}},"
+            + "\"bySegment\":{\"t\":0,\"r\":[{\"c\":[{\"s\":{\"s\":0,\"c\":0}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}},"
+            + "\"byPrerequisite\":{\"t\":0,\"r\":[{\"c\":[{\"p\":{\"f\":\"byDate\",\"c\":0,\"v\":{\"b\":true}}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}"
+            + "}}";
+
+    @Test
+    void servesResultsOfTheSameUserAndSettings() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(100);
+        EvaluationResult result = new EvaluationResult(new SettingValue(), null, null, null);
+
+        assertNull(cache.get(settings.get("byEmail"), "byEmail", user("a@example.com"), settings));
+        cache.put(settings.get("byEmail"), "byEmail", user("a@example.com"), settings, result);
+
+        assertSame(result, cache.get(settings.get("byEmail"), "byEmail", user("a@example.com"), settings));
+        assertNull(cache.get(settings.get("byEmail"), "byEmail", user("b@example.com"), settings));
+        assertNull(cache.get(settings.get("plain"), "plain", user("a@example.com"), settings));
+
+        EvaluationCacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHitCount());
+        assertEquals(3, stats.getMissCount());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void sharesResultsOfUsersWithTheSameReadAttributes() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(100);
+        EvaluationResult result = new EvaluationResult(new SettingValue(), null, null, null);
+        User user = User.newBuilder().email("a@example.com").country("HU").build("id1");
+        User otherUser = User.newBuilder().email("a@example.com").country("US").build("id2");
+
+        cache.put(settings.get("byEmail"), "byEmail", user, settings, result);
+        cache.put(settings.get("plain"), "plain", user, settings, result);
+
+        assertSame(result, cache.get(settings.get("byEmail"), "byEmail", otherUser, settings));
+        assertSame(result, cache.get(settings.get("plain"), "plain", User.newBuilder().build("id3"), settings));
+        assertNull(cache.get(settings.get("plain"), "plain", null, settings));
+    }
+
+    @Test
+    void skipsUsersWithAttributeProvider() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(100);
+        EvaluationResult result = new EvaluationResult(new SettingValue(), null, null, null);
+        User user = User.newBuilder().attributeProvider(name -> {
+            throw new AssertionError("'" + name + "' should not be looked up");
+        }).build("id");
+
+        cache.put(settings.get("byEmail"), "byEmail", user, settings, result);
+
+        assertNull(cache.get(settings.get("byEmail"), "byEmail", user, settings));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void dropsResultsOfPreviousSettings() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        Map<String, Setting> newSettings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(100);
+        cache.put(settings.get("plain"), "plain", null, settings, new EvaluationResult(new SettingValue(), null, null, null));
+
+        assertNull(cache.get(newSettings.get("plain"), "plain", null, newSettings));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void evaluationsOfThePreviousSettingsDoNotWipeTheCache() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        Map<String, Setting> newSettings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(100);
+        EvaluationResult result = new EvaluationResult(new SettingValue(), null, null, null);
+        cache.put(settings.get("byEmail"), "byEmail", user("a@example.com"), settings, result);
+        cache.put(newSettings.get("plain"), "plain", null, newSettings, result);
+
+        cache.put(settings.get("plain"), "plain", null, settings, new EvaluationResult(new SettingValue(), null, null, null));
+        assertNull(cache.get(settings.get("plain"), "plain", null, settings));
+
+        assertSame(result, cache.get(newSettings.get("plain"), "plain", null, newSettings));
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void doesNotCacheTimeDependentSettings() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(100);
+        EvaluationResult result = new EvaluationResult(new SettingValue(), null, null, null);
+
+        for (String key : new String[]{"byDate", "bySegment", "byPrerequisite"}) {
+            cache.put(settings.get(key), key, user("a@example.com"), settings, result);
+            assertNull(cache.get(settings.get(key), key, user("a@example.com"), settings), key);
+        }
+        assertEquals(0, cache.getStats().getSize());
+        assertEquals(0, cache.getStats().getMissCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedResults() {
+        Map<String, Setting> settings = Utils.deserializeConfig(CONFIG).getEntries();
+        EvaluationCache cache = new EvaluationCache(16);
+        EvaluationResult result = new EvaluationResult(new SettingValue(), null, null, null);
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(settings.get("byEmail"), "byEmail", user(i + "@example.com"), settings, result);
+        }
+
+        assertEquals(16, cache.getStats().getSize());
+        assertSame(result, cache.get(settings.get("byEmail"), "byEmail", user("999@example.com"), settings));
+    }
+
+    @Test
+    void rejectsInvalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> new EvaluationCache(0));
+    }
+
+    private static User user(String email) {
+        return User.newBuilder().email(email).build("id");
+    }
+}
@@ -0,0 +1,92 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class EvaluationPassTest {
+    private static final String CONFIG = "{\"p\":{\"s\":\"salt\"},"
+            + "\"s\":[{\"n\":\"Staff\",\"r\":[{\"a\":\"Email\",\"c\":2,\"l\":[\"@example.com\"]}]}],"
+            + "\"f\":{"
+            + "\"inSegment\":{\"t\":0,\"r\":[{\"c\":[{\"s\":{\"s\":0,\"c\":0}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}},"
+            + "\"notInSegment\":{\"t\":0,\"r\":[{\"c\":[{\"s\":{\"s\":0,\"c\":1}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}"
+            + "}}";
+
+    private final RolloutEvaluator evaluator = new RolloutEvaluator(new ConfigCatLogger(LoggerFactory.getLogger(EvaluationPassTest.class), LogLevel.WARNING));
+
+    @Test
+    void segmentResultIsSharedBetweenSettings() {
+        Config config = Utils.deserializeConfig(CONFIG);
+        Map<String, Setting> settings = config.getEntries();
+        Segment segment = config.getSegments()[0];
+        User user = User.newBuilder().email("a@example.com").build("id");
+        EvaluationPass pass = new EvaluationPass();
+
+        EvaluationResult inSegment = evaluator.evaluate(settings.get("inSegment"), "inSegment", user, settings, new EvaluateLogger(LogLevel.WARNING), pass);
+
+        assertEquals(true, pass.getSegmentResult(segment));
+        assertEquals(true, inSegment.value.getBooleanValue());
+        EvaluationResult notInSegment = evaluator.evaluate(settings.get("notInSegment"), "notInSegment", user, settings, new EvaluateLogger(LogLevel.WARNING), pass);
+        assertEquals(false, notInSegment.value.getBooleanValue());
+    }
+
+    @Test
+    void prerequisiteFlagResultIsShared() {
+        Map<String, Setting> settings = Utils.deserializeConfig("{\"f\":{"
+                + "\"parent\":{\"t\":0,\"v\":{\"b\":true}},"
+                + "\"child\":{\"t\":0,\"r\":[{\"c\":[{\"p\":{\"f\":\"parent\",\"c\":0,\"v\":{\"b\":true}}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}"
+                + "}}").getEntries();
+        User user = User.newBuilder().build("id");
+        EvaluationPass pass = new EvaluationPass();
+
+        EvaluationResult child = evaluator.evaluate(settings.get("child"), "child", user, settings, new EvaluateLogger(LogLevel.WARNING), pass);
+
+        assertEquals(true, child.value.getBooleanValue());
+        assertEquals(true, pass.getSettingResult("parent").value.getBooleanValue());
+        assertSame(child, pass.getSettingResult("child"));
+        assertSame(child, evaluator.evaluate(settings.get("child"), "child", user, settings, new EvaluateLogger(LogLevel.WARNING), pass));
+    }
+
+    @Test
+    void segmentResultIsNotSharedWhenWarningWasLogged() {
+        Config config = Utils.deserializeConfig(CONFIG.replace("{\"a\":\"Email\",\"c\":2,\"l\":[\"@example.com\"]}", "{\"a\":\"Age\",\"c\":2,\"l\":[\"4\"]}"));
+        Map<String, Setting> settings = config.getEntries();
+        Map<String, Object> custom = new HashMap<>();
+        custom.put("Age", 42);
+        User user = User.newBuilder().custom(custom).build("id");
+        EvaluationPass pass = new EvaluationPass();
+        List<Integer> warnings = new ArrayList<>();
+        RolloutEvaluator evaluator = new RolloutEvaluator(new ConfigCatLogger(LoggerFactory.getLogger(EvaluationPassTest.class), LogLevel.WARNING, null,
+                (logLevel, eventId, message, exception) -> warnings.add(eventId)));
+
+        EvaluationResult inSegment = evaluator.evaluate(settings.get("inSegment"), "inSegment", user, settings, new EvaluateLogger(LogLevel.WARNING), pass);
+        EvaluationResult notInSegment = evaluator.evaluate(settings.get("notInSegment"), "notInSegment", user, settings, new EvaluateLogger(LogLevel.WARNING), pass);
+
+        assertEquals(true, inSegment.value.getBooleanValue());
+        assertEquals(false, notInSegment.value.getBooleanValue());
+        assertNull(pass.getSegmentResult(config.getSegments()[0]));
+        // The auto-conversion warning is logged for both flags, so the segment was evaluated twice.
+        assertEquals(Arrays.asList(3005, 3005), warnings);
+    }
+
+    @Test
+    void segmentResultIsNotSharedWhenEvaluationIsLogged() {
+        Config config = Utils.deserializeConfig(CONFIG);
+        Map<String, Setting> settings = config.getEntries();
+        User user = User.newBuilder().email("a@example.com").build("id");
+        EvaluationPass pass = new EvaluationPass();
+
+        evaluator.evaluate(settings.get("inSegment"), "inSegment", user, settings, new EvaluateLogger(LogLevel.INFO), pass);
+
+        assertNull(pass.getSegmentResult(config.getSegments()[0]));
+    }
+}
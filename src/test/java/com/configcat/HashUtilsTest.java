@@ -0,0 +1,64 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class HashUtilsTest {
+
+    @Test
+    void saltedHashMatchesHashOfConcatenatedText() {
+        Random random = new Random(7);
+        String alphabet = "aZ09@.éő中😀😀\ude00\ud83d";
+        for (int round = 0; round < 2000; round++) {
+            String value = randomText(random, alphabet, random.nextInt(20));
+            String suffix = randomText(random, alphabet, random.nextInt(10));
+
+            byte[] digest = HashUtils.sha256(value, suffix, suffix.getBytes(StandardCharsets.UTF_8));
+
+            assertEquals(Utils.sha256(value + suffix), toHex(digest), value + " | " + suffix);
+        }
+    }
+
+    @Test
+    void sliceHashMatchesHashOfCopiedSlice() {
+        byte[] value = "john@example.com".getBytes(StandardCharsets.UTF_8);
+        byte[] suffix = "saltkey".getBytes(StandardCharsets.UTF_8);
+
+        byte[] digest = HashUtils.sha256(value, 5, 7, suffix);
+
+        assertEquals(Utils.sha256("example" + "saltkey"), toHex(digest));
+    }
+
+    @Test
+    void decodesOnlyLowercaseSha256Hex() {
+        String hash = Utils.sha256("test");
+
+        assertArrayEquals(HashUtils.sha256("te", "st", "st".getBytes(StandardCharsets.UTF_8)), HashUtils.decodeSha256Hex(hash));
+        assertNull(HashUtils.decodeSha256Hex(hash.toUpperCase()));
+        assertNull(HashUtils.decodeSha256Hex(hash.substring(1)));
+        assertNull(HashUtils.decodeSha256Hex("x" + hash.substring(1)));
+        assertNull(HashUtils.decodeSha256Hex(null));
+    }
+
+    private static String randomText(Random random, String alphabet, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return builder.toString();
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+}
@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -147,6 +148,61 @@ public class LazyLoadingTest {
         assertEquals(1, this.server.getRequestCount());
     }
 
+    @Test
+    void testSettingsAvailableWithoutFetchUntilExpired() throws Exception {
+        ConfigCache cache = new SingleValueCache(Helpers.cacheValueFromConfigJson(String.format(TEST_JSON, "test")));
+
+        PollingMode mode = PollingModes
+                .lazyLoad(1);
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", this.server.url("/").toString(), false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        SettingResult settingResult = service.getSettingsIfAvailable();
+        assertEquals("test", settingResult.settings().get("fakeKey").getSettingsValue().getStringValue());
+        assertSame(settingResult, service.getSettingsIfAvailable());
+        assertSame(settingResult, service.getSettings().get());
+
+        Thread.sleep(1000);
+
+        assertNull(service.getSettingsIfAvailable());
+        assertEquals(0, this.server.getRequestCount());
+
+        service.close();
+    }
+
+    @Test
+    void testCacheSyncPolicy() throws Exception {
+        assertEquals(4, countCacheReads(CacheSyncPolicy.always()));
+        assertEquals(1, countCacheReads(CacheSyncPolicy.atMostEvery(60000)));
+        assertEquals(1, countCacheReads(CacheSyncPolicy.whenExpired()));
+        assertEquals(1, countCacheReads(CacheSyncPolicy.never()));
+        assertThrows(IllegalArgumentException.class, () -> CacheSyncPolicy.atMostEvery(0));
+    }
+
+    private int countCacheReads(CacheSyncPolicy cacheSyncPolicy) throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        ConfigCache cache = new SingleValueCache(Helpers.cacheValueFromConfigJson(String.format(TEST_JSON, "test"))) {
+            @Override
+            protected String read(String key) {
+                reads.incrementAndGet();
+                return super.read(key);
+            }
+        };
+
+        PollingMode mode = PollingModes
+                .lazyLoad(60);
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", this.server.url("/").toString(), false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks(), cacheSyncPolicy);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("test", service.getSettings().get().settings().get("fakeKey").getSettingsValue().getStringValue());
+        }
+        assertEquals(0, this.server.getRequestCount());
+
+        service.close();
+        return reads.get();
+    }
+
     @Test
     void testCacheTTLRespectsExternalCache() throws Exception {
         this.server.enqueue(new MockResponse().setResponseCode(200).setBody(String.format(TEST_JSON, "test-remote")));
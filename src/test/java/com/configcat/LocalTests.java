@@ -7,8 +7,15 @@ import org.junit.jupiter.api.Test;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -64,6 +71,149 @@ public class LocalTests {
         client.close();
     }
 
+    @Test
+    public void values() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("enabledFeature", true);
+        map.put("intSetting", 5);
+        map.put("stringSetting", "test");
+
+        List<Integer> errors = new ArrayList<>();
+        ConfigCatClient client = ConfigCatClient.get(Helpers.SDK_KEY, options -> {
+            options.flagOverrides(OverrideDataSourceBuilder.map(map), OverrideBehaviour.LOCAL_ONLY);
+            options.logFilter((logLevel, eventId, message, exception) -> errors.add(eventId));
+        });
+
+        Map<String, Object> values = client.getValues(Arrays.asList("enabledFeature", "stringSetting", "nonExisting", "nonExisting"), User.newBuilder().build("test"));
+
+        assertEquals(Arrays.asList(1001), errors);
+        assertEquals(2, values.size());
+        assertEquals(true, values.get("enabledFeature"));
+        assertEquals("test", values.get("stringSetting"));
+        assertThrows(IllegalArgumentException.class, () -> client.getValues(null));
+
+        client.close();
+    }
+
+    @Test
+    public void flagHandles() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("enabledFeature", true);
+        map.put("intSetting", 5);
+        map.put("doubleSetting", 3.14);
+        map.put("stringSetting", "test");
+
+        ConfigCatClient client = ConfigCatClient.get(Helpers.SDK_KEY, options -> options.flagOverrides(OverrideDataSourceBuilder.map(map), OverrideBehaviour.LOCAL_ONLY));
+        List<EvaluationDetails<Object>> evaluations = new ArrayList<>();
+
+        FlagHandle.BooleanFlag enabledFeature = client.booleanFlag("enabledFeature", false);
+        assertTrue(enabledFeature.get());
+        assertTrue(enabledFeature.get(User.newBuilder().build("test")));
+        assertEquals(5, client.intFlag("intSetting", 0).get());
+        assertEquals(3.14, client.doubleFlag("doubleSetting", 0.0).get());
+        assertEquals("test", client.stringFlag("stringSetting", "").get());
+        assertEquals("default", client.stringFlag("nonExisting", "default").get());
+        assertEquals(-1, client.intFlag("stringSetting", -1).get());
+        assertThrows(IllegalArgumentException.class, () -> client.booleanFlag("", false));
+
+        client.getHooks().addOnFlagEvaluated(evaluations::add);
+        assertTrue(enabledFeature.get());
+        assertFalse(client.booleanFlag("nonExisting", false).get());
+
+        assertEquals(2, evaluations.size());
+        assertEquals(true, evaluations.get(0).getValue());
+        assertFalse(evaluations.get(0).isDefaultValue());
+        assertTrue(evaluations.get(1).isDefaultValue());
+
+        client.close();
+    }
+
+    @Test
+    public void valuesForUsers() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("enabledFeature", true);
+        map.put("stringSetting", "test");
+
+        List<Integer> errors = new ArrayList<>();
+        ConfigCatClient client = ConfigCatClient.get(Helpers.SDK_KEY, options -> {
+            options.flagOverrides(OverrideDataSourceBuilder.map(map), OverrideBehaviour.LOCAL_ONLY);
+            options.logFilter((logLevel, eventId, message, exception) -> errors.add(eventId));
+        });
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            users.add(User.newBuilder().build("user" + i));
+        }
+        Map<String, Map<String, Object>> results = new ConcurrentHashMap<>();
+
+        client.getValuesForUsers(Arrays.asList("enabledFeature", "nonExisting"), users, (user, values) -> results.put(user.getIdentifier(), values));
+
+        assertEquals(Arrays.asList(1001), errors);
+        assertEquals(1000, results.size());
+        for (Map<String, Object> values : results.values()) {
+            assertEquals(1, values.size());
+            assertEquals(true, values.get("enabledFeature"));
+        }
+
+        client.close();
+    }
+
+    @Test
+    public void valuesForUsersWithFailingConsumer() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        map.put("enabledFeature", true);
+
+        List<Integer> errors = new ArrayList<>();
+        ConfigCatClient client = ConfigCatClient.get(Helpers.SDK_KEY, options -> {
+            options.flagOverrides(OverrideDataSourceBuilder.map(map), OverrideBehaviour.LOCAL_ONLY);
+            options.logFilter((logLevel, eventId, message, exception) -> errors.add(eventId));
+        });
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            users.add(User.newBuilder().build("user" + i));
+        }
+        Map<String, Map<String, Object>> results = new ConcurrentHashMap<>();
+
+        client.getValuesForUsers(Collections.singletonList("enabledFeature"), users, (user, values) -> {
+            if (user.getIdentifier().equals("user500")) {
+                throw new IllegalStateException("consumer failure");
+            }
+            results.put(user.getIdentifier(), values);
+        });
+
+        assertEquals(Arrays.asList(1002), errors);
+        assertEquals(999, results.size());
+
+        client.close();
+    }
+
+    @Test
+    public void allValuesWithEvaluationExecutor() throws IOException {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            map.put("setting" + i, i % 3 == 0 ? (Object) ("value" + i) : (Object) (i % 2 == 0));
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        ConfigCatClient client = ConfigCatClient.get(Helpers.SDK_KEY, options -> {
+            options.flagOverrides(OverrideDataSourceBuilder.map(map), OverrideBehaviour.LOCAL_ONLY);
+            options.evaluationExecutor(executor);
+        });
+
+        assertEquals(map, client.getAllValues(User.newBuilder().build("test")));
+        List<EvaluationDetails<Object>> details = client.getAllValueDetails(User.newBuilder().build("test"));
+        assertEquals(1000, details.size());
+        List<String> keys = new ArrayList<>(client.getAllKeys());
+        for (int i = 0; i < details.size(); i++) {
+            assertEquals(keys.get(i), details.get(i).getKey());
+            assertEquals(map.get(keys.get(i)), details.get(i).getValue());
+        }
+
+        client.close();
+        executor.shutdown();
+    }
+
     @Test
     public void reload() throws IOException, InterruptedException {
         File newFile = new File("src/test/resources/auto_created.txt");
@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
@@ -115,6 +117,45 @@ public class ManualPollingTest {
         service.close();
     }
 
+    @Test
+    void testNotModifiedOnlyTouchesCache() throws InterruptedException, ExecutionException, IOException {
+        this.server.enqueue(new MockResponse().setResponseCode(200).setHeader("ETag", "etag").setBody(String.format(TEST_JSON, "test")));
+        this.server.enqueue(new MockResponse().setResponseCode(304));
+
+        List<Long> touchedFetchTimes = new ArrayList<>();
+        InMemoryCache cache = new InMemoryCache() {
+            int writeCount;
+
+            @Override
+            protected void write(String key, String value) {
+                assertEquals(0, writeCount++);
+                super.write(key, value);
+            }
+
+            @Override
+            protected boolean touch(String key, long fetchTime) {
+                touchedFetchTimes.add(fetchTime);
+                return true;
+            }
+        };
+        PollingMode mode = PollingModes.manualPoll();
+        ConfigFetcher fetcher = new ConfigFetcher(new OkHttpClient.Builder().build(), logger, "", this.server.url("/").toString(), false, mode.getPollingIdentifier());
+        ConfigService service = new ConfigService("", fetcher, mode, cache, logger, false, new ConfigCatHooks());
+
+        service.refresh().get();
+        long firstFetchTime = service.getSettings().get().fetchTime();
+        Thread.sleep(10);
+        service.refresh().get();
+        SettingResult settingResult = service.getSettings().get();
+
+        assertEquals("test", settingResult.settings().get("fakeKey").getSettingsValue().getStringValue());
+        assertEquals(1, touchedFetchTimes.size());
+        assertEquals(settingResult.fetchTime(), (long) touchedFetchTimes.get(0));
+        assertTrue(settingResult.fetchTime() > firstFetchTime);
+
+        service.close();
+    }
+
     @Test
     void testEmptyCacheDoesNotInitiateHTTP() throws InterruptedException, ExecutionException {
         this.server.enqueue(new MockResponse().setResponseCode(200).setBody(String.format(TEST_JSON, "test")));
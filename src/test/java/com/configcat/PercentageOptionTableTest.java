@@ -0,0 +1,49 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class PercentageOptionTableTest {
+
+    @Test
+    void hashValueMatchesHexSubstringOfSha1() {
+        Random random = new Random(3);
+        for (int i = 0; i < 1000; i++) {
+            String key = "flag" + random.nextInt(50) + (i % 7 == 0 ? "é" : "");
+            String value = Integer.toHexString(random.nextInt()) + (i % 5 == 0 ? "😀" : "");
+
+            int expected = Integer.parseInt(Utils.sha1((key + value).getBytes(StandardCharsets.UTF_8)).substring(0, 7), 16) % 100;
+
+            assertEquals(expected, PercentageOptionTable.hashValue(key, key.getBytes(StandardCharsets.UTF_8), value));
+        }
+    }
+
+    @Test
+    void tableMatchesCumulativeScan() {
+        PercentageOption[] options = Utils.gson.fromJson("[{\"p\":20,\"v\":{\"s\":\"a\"}},{\"p\":0,\"v\":{\"s\":\"b\"}},{\"p\":30,\"v\":{\"s\":\"c\"}},{\"p\":40,\"v\":{\"s\":\"d\"}}]", PercentageOption[].class);
+        PercentageOptionTable table = PercentageOptionTable.of(options, null);
+
+        assertEquals(0, table.indexOf(0));
+        assertEquals(0, table.indexOf(19));
+        assertEquals(2, table.indexOf(20));
+        assertEquals(2, table.indexOf(49));
+        assertEquals(3, table.indexOf(50));
+        assertEquals(3, table.indexOf(89));
+        assertEquals(PercentageOptionTable.NO_OPTION, table.indexOf(90));
+        assertEquals(PercentageOptionTable.NO_OPTION, table.indexOf(99));
+    }
+
+    @Test
+    void tableIsReusedForTheSameOptions() {
+        PercentageOption[] options = Utils.gson.fromJson("[{\"p\":100,\"v\":{\"b\":true}}]", PercentageOption[].class);
+        PercentageOptionTable table = PercentageOptionTable.of(options, null);
+
+        assertSame(table, PercentageOptionTable.of(options, table));
+        assertEquals(0, PercentageOptionTable.of(options.clone(), table).indexOf(99));
+    }
+}
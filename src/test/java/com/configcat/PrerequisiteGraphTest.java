@@ -0,0 +1,44 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PrerequisiteGraphTest {
+
+    @Test
+    void marksSettingsThatCannotReachACycle() {
+        Map<String, Setting> settings = Utils.deserializeConfig("{\"f\":{"
+                + "\"self\":" + dependingOn("self") + ","
+                + "\"a\":" + dependingOn("b") + ","
+                + "\"b\":" + dependingOn("a") + ","
+                + "\"toCycle\":" + dependingOn("b") + ","
+                + "\"root\":" + dependingOn("middle") + ","
+                + "\"middle\":" + dependingOn("leaf") + ","
+                + "\"toMissing\":" + dependingOn("missing") + ","
+                + "\"leaf\":{\"t\":0,\"v\":{\"b\":true}}"
+                + "}}").getEntries();
+
+        for (String key : new String[]{"self", "a", "b", "toCycle"}) {
+            assertFalse(settings.get(key).isAcyclicIn(settings), key);
+        }
+        for (String key : new String[]{"root", "middle", "leaf", "toMissing"}) {
+            assertTrue(settings.get(key).isAcyclicIn(settings), key);
+        }
+    }
+
+    @Test
+    void onlyAppliesToTheAnalyzedSettings() {
+        Map<String, Setting> settings = Utils.deserializeConfig("{\"f\":{\"leaf\":{\"t\":0,\"v\":{\"b\":true}}}}").getEntries();
+        Map<String, Setting> otherSettings = Utils.deserializeConfig("{\"f\":{\"leaf\":{\"t\":0,\"v\":{\"b\":true}}}}").getEntries();
+
+        assertFalse(settings.get("leaf").isAcyclicIn(otherSettings));
+    }
+
+    private static String dependingOn(String key) {
+        return "{\"t\":0,\"r\":[{\"c\":[{\"p\":{\"f\":\"" + key + "\",\"c\":0,\"v\":{\"b\":true}}}],\"s\":{\"v\":{\"b\":true}}}],\"v\":{\"b\":false}}";
+    }
+}
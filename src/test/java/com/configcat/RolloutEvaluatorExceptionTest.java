@@ -0,0 +1,28 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class RolloutEvaluatorExceptionTest {
+
+    @Test
+    void messagesAreBuiltOnDemand() {
+        assertEquals("cannot evaluate, User Object is missing",
+                RolloutEvaluatorException.USER_OBJECT_IS_MISSING_EXCEPTION.getMessage());
+        assertEquals("cannot evaluate, the User.Email attribute is missing",
+                RolloutEvaluatorException.attributeMissing("Email").getMessage());
+        assertEquals("cannot evaluate, the User.Version attribute is invalid (not a valid semantic version)",
+                RolloutEvaluatorException.attributeInvalid("Version", "not a valid semantic version").getMessage());
+
+        RolloutEvaluatorException exception = RolloutEvaluatorException.attributeMissing("Email");
+        assertSame(exception.getMessage(), exception.getMessage());
+    }
+
+    @Test
+    void hasNoStackTrace() {
+        assertEquals(0, RolloutEvaluatorException.attributeMissing("Email").getStackTrace().length);
+        assertEquals(0, RolloutEvaluatorException.USER_OBJECT_IS_MISSING_EXCEPTION.getStackTrace().length);
+    }
+}
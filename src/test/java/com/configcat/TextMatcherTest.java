@@ -0,0 +1,75 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TextMatcherTest {
+
+    @Test
+    void matchesLikeStringMethods() {
+        Random random = new Random(42);
+        for (int round = 0; round < 500; round++) {
+            String[] patterns = new String[1 + random.nextInt(20)];
+            for (int i = 0; i < patterns.length; i++) {
+                patterns[i] = randomText(random, 1 + random.nextInt(4));
+            }
+            TextMatcher contains = TextMatcher.contains(patterns, patterns.length);
+            TextMatcher startsWith = TextMatcher.startsWith(patterns, patterns.length);
+            TextMatcher endsWith = TextMatcher.endsWith(patterns, patterns.length);
+
+            for (int j = 0; j < 20; j++) {
+                String text = randomText(random, random.nextInt(12));
+                boolean expectedContains = false;
+                boolean expectedStartsWith = false;
+                boolean expectedEndsWith = false;
+                for (String pattern : patterns) {
+                    expectedContains |= text.contains(pattern);
+                    expectedStartsWith |= text.startsWith(pattern);
+                    expectedEndsWith |= text.endsWith(pattern);
+                }
+                assertEquals(expectedContains, contains.matches(text), text);
+                assertEquals(expectedStartsWith, startsWith.matches(text), text);
+                assertEquals(expectedEndsWith, endsWith.matches(text), text);
+            }
+        }
+    }
+
+    @Test
+    void onlyTheGivenNumberOfPatternsAreUsed() {
+        String[] patterns = new String[]{"@example.com", "@test.com", null};
+        TextMatcher endsWith = TextMatcher.endsWith(patterns, 2);
+
+        assertTrue(endsWith.matches("john@test.com"));
+        assertFalse(endsWith.matches("john@example.org"));
+    }
+
+    @Test
+    void emptyPatternMatchesEverything() {
+        String[] patterns = new String[]{"abc", ""};
+
+        assertTrue(TextMatcher.contains(patterns, 2).matches("x"));
+        assertTrue(TextMatcher.startsWith(patterns, 2).matches("x"));
+        assertTrue(TextMatcher.endsWith(patterns, 2).matches("x"));
+    }
+
+    @Test
+    void overlappingPatternsAreFoundThroughFailureLinks() {
+        TextMatcher contains = TextMatcher.contains(new String[]{"abcd", "bce", "c"}, 2);
+
+        assertTrue(contains.matches("xabcex"));
+        assertFalse(contains.matches("xabcx"));
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            builder.append("abcé".charAt(random.nextInt(4)));
+        }
+        return builder.toString();
+    }
+}
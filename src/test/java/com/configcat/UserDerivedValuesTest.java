@@ -0,0 +1,65 @@
+package com.configcat;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class UserDerivedValuesTest {
+
+    @Test
+    void derivedValuesAreReused() {
+        UserDerivedValues derivedValues = User.newBuilder().build("a").getDerivedValues();
+
+        assertSame(derivedValues.getVersion(UserDerivedValues.versionKey("Version"), " 1.2.3 "), derivedValues.getVersion(UserDerivedValues.versionKey("Version"), " 1.2.3 "));
+        assertEquals(Double.valueOf(1.5), derivedValues.getNumber(UserDerivedValues.numberKey("Number"), " 1,5 "));
+        assertSame(derivedValues.getStringArray(UserDerivedValues.stringArrayKey("Roles"), "[\"admin\"]"), derivedValues.getStringArray(UserDerivedValues.stringArrayKey("Roles"), "[\"admin\"]"));
+        assertArrayEquals(new String[]{"admin"}, derivedValues.getStringArray(UserDerivedValues.stringArrayKey("Roles"), "[\"admin\"]"));
+    }
+
+    @Test
+    void invalidValuesAreReportedAsNull() {
+        UserDerivedValues derivedValues = User.newBuilder().build("a").getDerivedValues();
+
+        assertNull(derivedValues.getVersion(UserDerivedValues.versionKey("Version"), "x.y"));
+        assertNull(derivedValues.getNumber(UserDerivedValues.numberKey("Number"), "five"));
+        assertNull(derivedValues.getStringArray(UserDerivedValues.stringArrayKey("Roles"), "admin"));
+        assertNull(derivedValues.getStringArray(UserDerivedValues.stringArrayKey("Roles2"), "[\"admin\", null]"));
+    }
+
+    @Test
+    void saltedHashesAreKeyedBySalt() {
+        UserDerivedValues derivedValues = User.newBuilder().build("a").getDerivedValues();
+
+        byte[] first = derivedValues.getSaltedHash(UserDerivedValues.saltedHashKey("Email", "salt1"), "a@example.com", "salt1".getBytes(StandardCharsets.UTF_8));
+        byte[] second = derivedValues.getSaltedHash(UserDerivedValues.saltedHashKey("Email", "salt2"), "a@example.com", "salt2".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(Utils.sha256("a@example.comsalt1"), toHex(first));
+        assertEquals(Utils.sha256("a@example.comsalt2"), toHex(second));
+        assertSame(first, derivedValues.getSaltedHash(UserDerivedValues.saltedHashKey("Email", "salt1"), "a@example.com", "salt1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void compiledConditionsPreBuildTheirKey() {
+        CompiledUserCondition semverCondition = Utils.gson.fromJson("{\"a\":\"Version\",\"c\":9,\"s\":\"1.2.0\"}", UserCondition.class).getCompiledCondition("salt", "key");
+        CompiledUserCondition textCondition = Utils.gson.fromJson("{\"a\":\"Email\",\"c\":2,\"l\":[\"@example.com\"]}", UserCondition.class).getCompiledCondition("salt", "key");
+
+        assertEquals(UserDerivedValues.versionKey("Version"), semverCondition.getDerivedValueKey());
+        assertNull(textCondition.getDerivedValueKey());
+
+        UserDerivedValues derivedValues = User.newBuilder().build("a").getDerivedValues();
+        assertSame(derivedValues.getVersion(semverCondition.getDerivedValueKey(), "1.2.3"), derivedValues.getVersion(UserDerivedValues.versionKey("Version"), "1.2.3"));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder();
+        for (byte b : bytes) {
+            builder.append(String.format("%02x", b));
+        }
+        return builder.toString();
+    }
+}
@@ -2,6 +2,17 @@ package com.configcat;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UserTests {
@@ -34,4 +45,119 @@ public class UserTests {
         assertNotEquals(country, user.getAttribute("COUNTRY"));
         assertNotEquals(country, user.getAttribute("country"));
     }
+
+    @Test
+    public void customAttributesCanBeSetOneByOne() {
+        Map<String, Object> custom = new HashMap<>();
+        custom.put("Role", "user");
+        custom.put("Plan", "free");
+        custom.put("Email", "ignored@example.com");
+        User user = User.newBuilder()
+                .email("a@example.com")
+                .custom(custom)
+                .custom("Role", "admin")
+                .custom("Age", 42)
+                .custom("Identifier", "ignored")
+                .build("id");
+
+        assertEquals("admin", user.getAttribute("Role"));
+        assertEquals("free", user.getAttribute("Plan"));
+        assertEquals(42, user.getAttribute("Age"));
+        assertEquals("a@example.com", user.getAttribute("Email"));
+        assertEquals("id", user.getAttribute("Identifier"));
+        assertNull(user.getAttribute("Country"));
+        assertThrows(IllegalArgumentException.class, () -> User.newBuilder().custom(null, "value"));
+    }
+
+    @Test
+    public void toStringKeepsAttributeOrder() {
+        User user = User.newBuilder()
+                .country("HU")
+                .email("a@example.com")
+                .custom("b", "2")
+                .custom("a", "1")
+                .custom("C", "3")
+                .build("id");
+
+        assertEquals("{\"Identifier\":\"id\",\"Email\":\"a@example.com\",\"Country\":\"HU\",\"C\":\"3\",\"a\":\"1\",\"b\":\"2\"}", user.toString());
+    }
+
+    @Test
+    public void compiledConditionReadsAttributeBySlot() {
+        UserCondition userCondition = Utils.gson.fromJson("{\"a\":\"SubscriptionTier\",\"c\":28,\"s\":\"gold\"}", UserCondition.class);
+        CompiledUserCondition compiledCondition = userCondition.getCompiledCondition("salt", "key");
+
+        assertEquals("gold", compiledCondition.getComparisonAttributeValue(User.newBuilder().custom("SubscriptionTier", "gold").build("a")));
+        assertNull(compiledCondition.getComparisonAttributeValue(User.newBuilder().build("a")));
+    }
+
+    @Test
+    public void buildingUsersDoesNotAssignSlots() {
+        User user = User.newBuilder().custom("LateCompiledAttribute", "value").build("a");
+        assertEquals(UserAttributeSlots.NO_SLOT, UserAttributeSlots.find("LateCompiledAttribute"));
+
+        UserCondition userCondition = Utils.gson.fromJson("{\"a\":\"LateCompiledAttribute\",\"c\":28,\"s\":\"value\"}", UserCondition.class);
+        CompiledUserCondition compiledCondition = userCondition.getCompiledCondition("salt", "key");
+
+        assertNotEquals(UserAttributeSlots.NO_SLOT, UserAttributeSlots.find("LateCompiledAttribute"));
+        assertEquals("value", compiledCondition.getComparisonAttributeValue(user));
+        assertEquals("value", user.getAttribute("LateCompiledAttribute"));
+    }
+
+    @Test
+    public void attributeProviderIsQueriedOnceOnDemand() {
+        List<String> lookups = new ArrayList<>();
+        User user = User.newBuilder()
+                .email("a@example.com")
+                .custom("Plan", "free")
+                .attributeProvider(name -> {
+                    lookups.add(name);
+                    return name.equals("Tier") ? "gold" : null;
+                })
+                .build("id");
+
+        assertEquals("gold", user.getAttribute("Tier"));
+        assertEquals("gold", user.getAttribute("Tier"));
+        assertNull(user.getAttribute("Device"));
+        assertNull(user.getAttribute("Device"));
+        assertEquals("a@example.com", user.getAttribute("Email"));
+        assertEquals("free", user.getAttribute("Plan"));
+        assertEquals("id", user.getAttribute("Identifier"));
+
+        assertEquals(Arrays.asList("Tier", "Device"), lookups);
+        assertEquals("{\"Identifier\":\"id\",\"Email\":\"a@example.com\",\"Plan\":\"free\"}", user.toString());
+    }
+
+    @Test
+    public void attributeProviderIsQueriedOnceConcurrently() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        User user = User.newBuilder()
+                .attributeProvider(name -> {
+                    lookups.incrementAndGet();
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "gold";
+                })
+                .build("id");
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Object>> values = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            values.add(executor.submit(() -> {
+                start.await();
+                return user.getAttribute("Tier");
+            }));
+        }
+        start.countDown();
+        for (Future<Object> value : values) {
+            assertEquals("gold", value.get());
+        }
+        executor.shutdown();
+
+        assertEquals(1, lookups.get());
+    }
 }